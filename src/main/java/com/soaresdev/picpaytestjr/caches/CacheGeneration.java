@@ -0,0 +1,55 @@
+package com.soaresdev.picpaytestjr.caches;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Objects;
+
+// One INCR makes every key of the previous generation unreachable, those entries expire by TTL
+public class CacheGeneration {
+    public static final String GENERATION_CHANNEL = "cache-generation";
+    private static final String KEY_PREFIX = "cache-generation:";
+    private final String cacheName;
+    private final StringRedisTemplate redisTemplate;
+    private final long refreshIntervalNanos;
+    private volatile long generation;
+    private volatile long refreshedAt;
+
+    public CacheGeneration(String cacheName, StringRedisTemplate redisTemplate,
+                           RedisMessageListenerContainer listenerContainer, Duration refreshInterval) {
+        this.cacheName = cacheName;
+        this.redisTemplate = redisTemplate;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+        this.refreshedAt = System.nanoTime() - refreshIntervalNanos - 1;
+        listenerContainer.addMessageListener((message, pattern) ->
+                onGeneration(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(GENERATION_CHANNEL));
+    }
+
+    public long current() {
+        if(System.nanoTime() - refreshedAt > refreshIntervalNanos) {
+            String storedGeneration = redisTemplate.opsForValue().get(KEY_PREFIX + cacheName);
+            update(Objects.isNull(storedGeneration) ? 0 : Long.parseLong(storedGeneration));
+        }
+        return generation;
+    }
+
+    public void increment() {
+        long newGeneration = Objects.requireNonNull(redisTemplate.opsForValue().increment(KEY_PREFIX + cacheName));
+        update(newGeneration);
+        redisTemplate.convertAndSend(GENERATION_CHANNEL, cacheName + "|" + newGeneration);
+    }
+
+    private void onGeneration(String message) {
+        String[] parts = message.split("\\|", 2);
+        if(parts.length == 2 && parts[0].equals(cacheName))
+            update(Long.parseLong(parts[1]));
+    }
+
+    private synchronized void update(long newGeneration) {
+        if(newGeneration > generation)
+            generation = newGeneration;
+        refreshedAt = System.nanoTime();
+    }
+}
@@ -0,0 +1,6 @@
+package com.soaresdev.picpaytestjr.caches;
+
+public enum CacheValueFormat {
+    COMPACT,
+    JAVA
+}
@@ -0,0 +1,291 @@
+package com.soaresdev.picpaytestjr.caches;
+
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.v1.dtos.CursorPageDto;
+import com.soaresdev.picpaytestjr.v1.dtos.UserBalanceDto;
+import com.soaresdev.picpaytestjr.v1.dtos.UserProfileDto;
+import com.soaresdev.picpaytestjr.v1.dtos.UserResponseDto;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+// Values written by RedisSerializer.java() start with the JDK stream magic (0xACED) and are still readable
+public class CompactValueSerializer implements RedisSerializer<Object> {
+    private static final byte MAGIC = (byte) 0xC5;
+    private static final byte VERSION = 1;
+    private static final byte FLAG_LZ4 = 1;
+    private static final byte JAVA_STREAM_MAGIC = (byte) 0xAC;
+    private static final int HEADER_SIZE = 3;
+    private static final int MAX_UTF_LENGTH = 65_535 / 3;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_USER = 2;
+    private static final byte TYPE_PAGE = 3;
+    private static final byte TYPE_PROFILE = 4;
+    private static final byte TYPE_BALANCE = 5;
+    private static final byte TYPE_CURSOR_PAGE = 6;
+    private static final byte TYPE_JAVA = 127;
+
+    private final RedisSerializer<Object> javaSerializer = RedisSerializer.java();
+    private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private final LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+    private final CacheValueFormat writeFormat;
+    private final int compressionThreshold;
+
+    public CompactValueSerializer(CacheValueFormat writeFormat, int compressionThreshold) {
+        this.writeFormat = writeFormat;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        if(Objects.isNull(value))
+            return new byte[0];
+        if(writeFormat == CacheValueFormat.JAVA)
+            return javaSerializer.serialize(value);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try(DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(0);
+            writeValue(out, value);
+        } catch(IOException e) {
+            throw new SerializationException("Cannot serialize cached value", e);
+        }
+        byte[] framed = bytes.toByteArray();
+        return framed.length - HEADER_SIZE >= compressionThreshold ? compress(framed) : framed;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if(Objects.isNull(bytes) || bytes.length == 0)
+            return null;
+        if(bytes[0] == JAVA_STREAM_MAGIC)
+            return javaSerializer.deserialize(bytes);
+        if(bytes.length < HEADER_SIZE || bytes[0] != MAGIC || bytes[1] != VERSION)
+            throw new SerializationException("Unknown cached value format");
+
+        byte[] payload = bytes;
+        int offset = HEADER_SIZE;
+        int length = bytes.length - HEADER_SIZE;
+        if((bytes[2] & FLAG_LZ4) != 0) {
+            length = ByteBuffer.wrap(bytes, HEADER_SIZE, Integer.BYTES).getInt();
+            payload = decompressor.decompress(bytes, HEADER_SIZE + Integer.BYTES, length);
+            offset = 0;
+        }
+        try(DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload, offset, length))) {
+            return readValue(in);
+        } catch(IOException e) {
+            throw new SerializationException("Cannot deserialize cached value", e);
+        }
+    }
+
+    private byte[] compress(byte[] framed) {
+        int payloadLength = framed.length - HEADER_SIZE;
+        byte[] compressed = new byte[HEADER_SIZE + Integer.BYTES + compressor.maxCompressedLength(payloadLength)];
+        int compressedLength = compressor.compress(framed, HEADER_SIZE, payloadLength,
+                compressed, HEADER_SIZE + Integer.BYTES, compressed.length - HEADER_SIZE - Integer.BYTES);
+        int totalLength = HEADER_SIZE + Integer.BYTES + compressedLength;
+        if(totalLength >= framed.length)
+            return framed;
+
+        ByteBuffer.wrap(compressed).put(MAGIC).put(VERSION).put(FLAG_LZ4).putInt(payloadLength);
+        byte[] result = new byte[totalLength];
+        System.arraycopy(compressed, 0, result, 0, totalLength);
+        return result;
+    }
+
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+        if(value instanceof String string && string.length() <= MAX_UTF_LENGTH) {
+            out.writeByte(TYPE_STRING);
+            out.writeUTF(string);
+        } else if(value instanceof UserResponseDto user) {
+            out.writeByte(TYPE_USER);
+            writeUser(out, user);
+        } else if(value instanceof UserProfileDto profile) {
+            out.writeByte(TYPE_PROFILE);
+            writeProfile(out, profile);
+        } else if(value instanceof UserBalanceDto balance) {
+            out.writeByte(TYPE_BALANCE);
+            writeNullableString(out, balance.getEmail());
+            writeBigDecimal(out, balance.getBalance());
+        } else if(value instanceof CursorPageDto<?> cursorPage && cursorPage.getContent().stream().allMatch(UserResponseDto.class::isInstance)) {
+            out.writeByte(TYPE_CURSOR_PAGE);
+            writeNullableString(out, cursorPage.getNextCursor());
+            out.writeInt(cursorPage.getSize());
+            out.writeInt(cursorPage.getContent().size());
+            for(Object user : cursorPage.getContent())
+                writeUser(out, (UserResponseDto) user);
+        } else if(value instanceof Page<?> page && page.getContent().stream().allMatch(UserResponseDto.class::isInstance)) {
+            out.writeByte(TYPE_PAGE);
+            writePage(out, page);
+        } else {
+            byte[] javaBytes = javaSerializer.serialize(value);
+            out.writeByte(TYPE_JAVA);
+            out.writeInt(javaBytes.length);
+            out.write(javaBytes);
+        }
+    }
+
+    private Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        return switch(type) {
+            case TYPE_STRING -> in.readUTF();
+            case TYPE_USER -> readUser(in);
+            case TYPE_PAGE -> readPage(in);
+            case TYPE_PROFILE -> readProfile(in);
+            case TYPE_BALANCE -> new UserBalanceDto(readNullableString(in), readBigDecimal(in));
+            case TYPE_CURSOR_PAGE -> readCursorPage(in);
+            case TYPE_JAVA -> javaSerializer.deserialize(in.readNBytes(in.readInt()));
+            default -> throw new SerializationException("Unknown cached value type: " + type);
+        };
+    }
+
+    private void writeUser(DataOutputStream out, UserResponseDto user) throws IOException {
+        writeUuid(out, user.getId());
+        writeNullableString(out, user.getFullName());
+        out.writeByte(Objects.isNull(user.getUserType()) ? 0 : user.getUserType().getCode());
+        writeNullableString(out, user.getCpfCnpj());
+        writeNullableString(out, user.getEmail());
+        writeBigDecimal(out, user.getBalance());
+    }
+
+    private UserResponseDto readUser(DataInputStream in) throws IOException {
+        UUID id = readUuid(in);
+        String fullName = readNullableString(in);
+        int userTypeCode = in.readByte();
+        String cpfCnpj = readNullableString(in);
+        String email = readNullableString(in);
+        BigDecimal balance = readBigDecimal(in);
+        return new UserResponseDto(balance, cpfCnpj, email, fullName, id,
+                userTypeCode == 0 ? null : UserType.getFromCode(userTypeCode));
+    }
+
+    private void writeProfile(DataOutputStream out, UserProfileDto profile) throws IOException {
+        writeUuid(out, profile.getId());
+        writeNullableString(out, profile.getFullName());
+        out.writeByte(Objects.isNull(profile.getUserType()) ? 0 : profile.getUserType().getCode());
+        writeNullableString(out, profile.getCpfCnpj());
+        writeNullableString(out, profile.getEmail());
+    }
+
+    private UserProfileDto readProfile(DataInputStream in) throws IOException {
+        UUID id = readUuid(in);
+        String fullName = readNullableString(in);
+        int userTypeCode = in.readByte();
+        String cpfCnpj = readNullableString(in);
+        String email = readNullableString(in);
+        return new UserProfileDto(cpfCnpj, email, fullName, id, userTypeCode == 0 ? null : UserType.getFromCode(userTypeCode));
+    }
+
+    private void writePage(DataOutputStream out, Page<?> page) throws IOException {
+        Pageable pageable = page.getPageable();
+        out.writeBoolean(pageable.isPaged());
+        if(pageable.isPaged()) {
+            out.writeInt(pageable.getPageNumber());
+            out.writeInt(pageable.getPageSize());
+        }
+        List<Sort.Order> orders = pageable.getSort().toList();
+        out.writeInt(orders.size());
+        for(Sort.Order order : orders) {
+            out.writeUTF(order.getProperty());
+            out.writeByte(order.getDirection().ordinal());
+            out.writeBoolean(order.isIgnoreCase());
+            out.writeByte(order.getNullHandling().ordinal());
+        }
+        out.writeLong(page.getTotalElements());
+        out.writeInt(page.getNumberOfElements());
+        for(Object user : page.getContent())
+            writeUser(out, (UserResponseDto) user);
+    }
+
+    private Page<UserResponseDto> readPage(DataInputStream in) throws IOException {
+        boolean paged = in.readBoolean();
+        int pageNumber = paged ? in.readInt() : 0;
+        int pageSize = paged ? in.readInt() : 0;
+        int ordersSize = in.readInt();
+        List<Sort.Order> orders = new ArrayList<>(ordersSize);
+        for(int i = 0; i < ordersSize; i++) {
+            String property = in.readUTF();
+            Sort.Direction direction = Sort.Direction.values()[in.readByte()];
+            boolean ignoreCase = in.readBoolean();
+            Sort.Order order = new Sort.Order(direction, property, Sort.NullHandling.values()[in.readByte()]);
+            orders.add(ignoreCase ? order.ignoreCase() : order);
+        }
+        long totalElements = in.readLong();
+        int contentSize = in.readInt();
+        List<UserResponseDto> content = new ArrayList<>(contentSize);
+        for(int i = 0; i < contentSize; i++)
+            content.add(readUser(in));
+        Pageable pageable = paged ? PageRequest.of(pageNumber, pageSize, Sort.by(orders)) : Pageable.unpaged(Sort.by(orders));
+        return new PageImpl<>(content, pageable, totalElements);
+    }
+
+    private CursorPageDto<UserResponseDto> readCursorPage(DataInputStream in) throws IOException {
+        String nextCursor = readNullableString(in);
+        int size = in.readInt();
+        int contentSize = in.readInt();
+        List<UserResponseDto> content = new ArrayList<>(contentSize);
+        for(int i = 0; i < contentSize; i++)
+            content.add(readUser(in));
+        return new CursorPageDto<>(content, size, nextCursor);
+    }
+
+    private void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeBoolean(Objects.nonNull(uuid));
+        if(Objects.nonNull(uuid)) {
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        }
+    }
+
+    private UUID readUuid(DataInputStream in) throws IOException {
+        return in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+    }
+
+    private void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(Objects.nonNull(value));
+        if(Objects.nonNull(value))
+            out.writeUTF(value);
+    }
+
+    private String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private void writeBigDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        out.writeBoolean(Objects.nonNull(value));
+        if(Objects.nonNull(value)) {
+            byte[] unscaledValue = value.unscaledValue().toByteArray();
+            out.writeInt(value.scale());
+            out.writeByte(unscaledValue.length);
+            out.write(unscaledValue);
+        }
+    }
+
+    private BigDecimal readBigDecimal(DataInputStream in) throws IOException {
+        if(!in.readBoolean())
+            return null;
+        int scale = in.readInt();
+        return new BigDecimal(new BigInteger(in.readNBytes(in.readUnsignedByte())), scale);
+    }
+}
@@ -0,0 +1,20 @@
+package com.soaresdev.picpaytestjr.caches;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.interceptor.SimpleCacheErrorHandler;
+import org.springframework.data.redis.serializer.SerializationException;
+
+public class EvictingCacheErrorHandler extends SimpleCacheErrorHandler {
+    private final Logger logger = LoggerFactory.getLogger(EvictingCacheErrorHandler.class.getName());
+
+    // An entry that cannot be read anymore is treated as a miss and dropped, so the next put replaces it
+    @Override
+    public void handleCacheGetError(RuntimeException exception, Cache cache, Object key) {
+        if(!(exception instanceof SerializationException))
+            throw exception;
+        logger.warn("Evicting unreadable entry {} from cache {}: {}", key, cache.getName(), exception.getMessage());
+        cache.evict(key);
+    }
+}
@@ -0,0 +1,247 @@
+package com.soaresdev.picpaytestjr.caches;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCache;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+public class TwoLevelCache implements Cache {
+    private final String name;
+    private final RedisCache redisCache;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache;
+    private final BiConsumer<String, Object> invalidationPublisher;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>();
+    private final com.github.benmanes.caffeine.cache.Cache<Object, LoadTiming> loadTimings;
+    private final Executor refreshExecutor;
+    private final double earlyRefreshBeta;
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder earlyRefreshes = new LongAdder();
+
+    public TwoLevelCache(String name, RedisCache redisCache, com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache,
+                         com.github.benmanes.caffeine.cache.Cache<Object, LoadTiming> loadTimings,
+                         BiConsumer<String, Object> invalidationPublisher, Executor refreshExecutor, double earlyRefreshBeta) {
+        this.name = name;
+        this.redisCache = redisCache;
+        this.localCache = localCache;
+        this.loadTimings = loadTimings;
+        this.invalidationPublisher = invalidationPublisher;
+        this.refreshExecutor = refreshExecutor;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return redisCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = localCache.getIfPresent(key);
+        if(Objects.nonNull(value))
+            return new SimpleValueWrapper(value);
+
+        ValueWrapper valueWrapper = redisCache.get(key);
+        if(Objects.nonNull(valueWrapper) && Objects.nonNull(valueWrapper.get()))
+            localCache.put(key, valueWrapper.get());
+        return valueWrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper valueWrapper = get(key);
+        Object value = Objects.isNull(valueWrapper) ? null : valueWrapper.get();
+        if(Objects.nonNull(value) && Objects.nonNull(type) && !type.isInstance(value))
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        return (T) value;
+    }
+
+    // Concurrent misses on the same key share one load, and the loader runs at most once per key on this node
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = localCache.getIfPresent(key);
+        if(Objects.nonNull(value)) {
+            refreshEarlyIfDue(key, valueLoader);
+            return (T) value;
+        }
+
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlightLoad = inFlightLoads.putIfAbsent(key, load);
+        if(Objects.nonNull(inFlightLoad)) {
+            coalescedLoads.increment();
+            return (T) await(inFlightLoad);
+        }
+        try {
+            ValueWrapper valueWrapper = redisCache.get(key);
+            if(Objects.nonNull(valueWrapper) && Objects.nonNull(valueWrapper.get())) {
+                localCache.put(key, valueWrapper.get());
+                load.complete(valueWrapper.get());
+                refreshEarlyIfDue(key, valueLoader);
+                return (T) valueWrapper.get();
+            }
+            Object loadedValue = loadAndStore(key, valueLoader);
+            load.complete(loadedValue);
+            return (T) loadedValue;
+        } catch(RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(key, load);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        redisCache.put(key, value);
+        if(Objects.nonNull(value))
+            localCache.put(key, value);
+        else
+            localCache.invalidate(key);
+        invalidationPublisher.accept(name, key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existingValue = redisCache.putIfAbsent(key, value);
+        if(Objects.isNull(existingValue)) {
+            if(Objects.nonNull(value))
+                localCache.put(key, value);
+            invalidationPublisher.accept(name, key);
+        }
+        return existingValue;
+    }
+
+    @Override
+    public void evict(Object key) {
+        redisCache.evict(key);
+        localCache.invalidate(key);
+        loadTimings.invalidate(key);
+        invalidationPublisher.accept(name, key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = redisCache.evictIfPresent(key);
+        localCache.invalidate(key);
+        loadTimings.invalidate(key);
+        invalidationPublisher.accept(name, key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        redisCache.clear();
+        localCache.invalidateAll();
+        loadTimings.invalidateAll();
+        invalidationPublisher.accept(name, null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = redisCache.invalidate();
+        localCache.invalidateAll();
+        loadTimings.invalidateAll();
+        invalidationPublisher.accept(name, null);
+        return invalidated;
+    }
+
+    // XFetch: the closer an entry is to its TTL and the slower it loaded, the likelier a read refreshes it early
+    private void refreshEarlyIfDue(Object key, Callable<?> valueLoader) {
+        LoadTiming loadTiming = loadTimings.getIfPresent(key);
+        if(Objects.isNull(loadTiming) || !loadTiming.isRefreshDue(earlyRefreshBeta))
+            return;
+
+        CompletableFuture<Object> refresh = new CompletableFuture<>();
+        if(Objects.nonNull(inFlightLoads.putIfAbsent(key, refresh)))
+            return;
+        loadTimings.invalidate(key);
+        earlyRefreshes.increment();
+        refreshExecutor.execute(() -> {
+            try {
+                refresh.complete(loadAndStore(key, valueLoader));
+            } catch(RuntimeException e) {
+                refresh.completeExceptionally(e);
+            } finally {
+                inFlightLoads.remove(key, refresh);
+            }
+        });
+    }
+
+    private Object loadAndStore(Object key, Callable<?> valueLoader) {
+        long startedAt = System.nanoTime();
+        Object loadedValue;
+        try {
+            loadedValue = valueLoader.call();
+        } catch(Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        long loadedAt = System.nanoTime();
+        if(Objects.isNull(loadedValue))
+            return null;
+
+        redisCache.put(key, loadedValue);
+        localCache.put(key, loadedValue);
+        // An early refresh replaces a value other nodes may still hold locally
+        invalidationPublisher.accept(name, key);
+        Duration ttl = redisCache.getCacheConfiguration().getTtlFunction().getTimeToLive(key, loadedValue);
+        if(!ttl.isZero() && !ttl.isNegative())
+            loadTimings.put(key, new LoadTiming(loadedAt + ttl.toNanos(), loadedAt - startedAt));
+        return loadedValue;
+    }
+
+    private Object await(CompletableFuture<Object> load) {
+        try {
+            return load.join();
+        } catch(CompletionException e) {
+            if(e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw e;
+        }
+    }
+
+    public void evictLocal(Object key) {
+        localCache.invalidate(key);
+    }
+
+    public void clearLocal() {
+        localCache.invalidateAll();
+    }
+
+    public long getCoalescedLoads() {
+        return coalescedLoads.sum();
+    }
+
+    public long getEarlyRefreshes() {
+        return earlyRefreshes.sum();
+    }
+
+    public RedisCache getRedisCache() {
+        return redisCache;
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<Object, Object> getLocalCache() {
+        return localCache;
+    }
+
+    public record LoadTiming(long expiresAt, long loadNanos) {
+        boolean isRefreshDue(double beta) {
+            return System.nanoTime() - loadNanos * beta * Math.log(ThreadLocalRandom.current().nextDouble()) >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.soaresdev.picpaytestjr.caches;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class TwoLevelCacheManager implements CacheManager {
+    public static final String INVALIDATION_CHANNEL = "cache-invalidation";
+    private static final String CLEAR_MARKER = "C";
+    private static final String EVICT_MARKER = "K";
+    private final Logger logger = LoggerFactory.getLogger(TwoLevelCacheManager.class.getName());
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final RedisCacheManager redisCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final ExecutorService refreshExecutor = Executors.newFixedThreadPool(2);
+    private final long localMaximumSize;
+    private final Duration localTtl;
+    private final double earlyRefreshBeta;
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager, StringRedisTemplate redisTemplate,
+                                RedisMessageListenerContainer listenerContainer, long localMaximumSize, Duration localTtl,
+                                double earlyRefreshBeta) {
+        this.redisCacheManager = redisCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.localMaximumSize = localMaximumSize;
+        this.localTtl = localTtl;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        listenerContainer.addMessageListener((message, pattern) ->
+                onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(INVALIDATION_CHANNEL));
+        redisCacheManager.getCacheNames().forEach(this::getCache);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if(Objects.nonNull(cache))
+            return cache;
+
+        Cache redisCache = redisCacheManager.getCache(name);
+        if(Objects.isNull(redisCache))
+            return null;
+        return caches.computeIfAbsent(name, cacheName -> new TwoLevelCache(cacheName, (RedisCache) redisCache,
+                Caffeine.newBuilder().maximumSize(localMaximumSize).expireAfterWrite(getLocalTtl((RedisCache) redisCache)).recordStats().build(),
+                Caffeine.newBuilder().maximumSize(localMaximumSize).build(),
+                this::publishInvalidation, refreshExecutor, earlyRefreshBeta));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        Set<String> cacheNames = new HashSet<>(redisCacheManager.getCacheNames());
+        cacheNames.addAll(caches.keySet());
+        return cacheNames;
+    }
+
+    public Collection<TwoLevelCache> getCaches() {
+        return caches.values();
+    }
+
+    public void shutdown() {
+        refreshExecutor.shutdown();
+    }
+
+    // A local entry never outlives the Redis one, or a node would keep serving a value the other nodes already expired
+    private Duration getLocalTtl(RedisCache redisCache) {
+        Duration redisTtl = redisCache.getCacheConfiguration().getTtlFunction().getTimeToLive(null, null);
+        if(redisTtl.isZero() || redisTtl.compareTo(localTtl) >= 0)
+            return localTtl;
+        return redisTtl;
+    }
+
+    // Keys are SpEL-generated strings, so their string form is enough to find them on the other nodes
+    private void publishInvalidation(String cacheName, Object key) {
+        String target = Objects.isNull(key) ? CLEAR_MARKER : EVICT_MARKER + key;
+        redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + "|" + cacheName + "|" + target);
+    }
+
+    private void onInvalidation(String message) {
+        String[] parts = message.split("\\|", 3);
+        if(parts.length < 3 || parts[0].equals(nodeId))
+            return;
+
+        TwoLevelCache cache = caches.get(parts[1]);
+        if(Objects.isNull(cache))
+            return;
+        logger.debug("Invalidating local cache entry from another node: {}", message);
+        if(parts[2].startsWith(EVICT_MARKER))
+            cache.evictLocal(parts[2].substring(EVICT_MARKER.length()));
+        else
+            cache.clearLocal();
+    }
+}
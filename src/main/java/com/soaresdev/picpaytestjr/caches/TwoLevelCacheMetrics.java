@@ -0,0 +1,32 @@
+package com.soaresdev.picpaytestjr.caches;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+
+public class TwoLevelCacheMetrics implements MeterBinder {
+    private final TwoLevelCacheManager cacheManager;
+
+    public TwoLevelCacheMetrics(TwoLevelCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for(TwoLevelCache cache : cacheManager.getCaches()) {
+            CaffeineCacheMetrics.monitor(registry, cache.getLocalCache(), cache.getName(), Tags.of("level", "l1"));
+            new RedisCacheMetrics(cache.getRedisCache(), Tags.of("level", "l2")).bindTo(registry);
+            FunctionCounter.builder("cache.loads.coalesced", cache, TwoLevelCache::getCoalescedLoads).
+                    tags("cache", cache.getName()).
+                    description("Loads that waited for a load of the same key already running on this node").
+                    register(registry);
+            FunctionCounter.builder("cache.refreshes.early", cache, TwoLevelCache::getEarlyRefreshes).
+                    tags("cache", cache.getName()).
+                    description("Entries refreshed in the background before their TTL expired").
+                    register(registry);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.soaresdev.picpaytestjr.clients;
+
+final class CircuitBreaker {
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean[] failedCalls;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openNanos;
+    private State state = State.CLOSED;
+    private int next;
+    private int calls;
+    private int failures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold, long openMillis) {
+        this.failedCalls = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openMillis * 1_000_000;
+    }
+
+    synchronized boolean tryAcquirePermission() {
+        if(state == State.OPEN) {
+            if(System.nanoTime() - openedAt < openNanos)
+                return false;
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if(state == State.HALF_OPEN) {
+            if(probeInFlight)
+                return false;
+            probeInFlight = true;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        if(state == State.HALF_OPEN)
+            close();
+        else if(state == State.CLOSED)
+            record(false);
+    }
+
+    synchronized void onFailure() {
+        if(state == State.HALF_OPEN) {
+            open();
+        } else if(state == State.CLOSED) {
+            record(true);
+            if(calls >= minimumCalls && failures * 100 >= failureRateThreshold * calls)
+                open();
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if(calls == failedCalls.length) {
+            if(failedCalls[next])
+                failures--;
+        } else {
+            calls++;
+        }
+        failedCalls[next] = failed;
+        if(failed)
+            failures++;
+        next = (next + 1) % failedCalls.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        next = 0;
+        calls = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,208 @@
+package com.soaresdev.picpaytestjr.clients;
+
+import com.soaresdev.picpaytestjr.exceptions.ExternalApiUnavailableException;
+import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// Client errors are answers of the endpoint, so they do not count as failures
+public class ExternalApiClient {
+    private final Logger logger = LoggerFactory.getLogger(ExternalApiClient.class.getName());
+    private final String name;
+    private final ExternalApiSettings settings;
+    private final RestClient restClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final LatencyWindow latencies;
+    private final Executor hedgeExecutor;
+
+    ExternalApiClient(String name, ExternalApiSettings settings, RestClient.Builder restClientBuilder, HttpClient httpClient,
+                      Executor hedgeExecutor) {
+        this.name = name;
+        this.settings = settings;
+        this.circuitBreaker = new CircuitBreaker(settings.circuitWindowSize(), settings.circuitMinimumCalls(),
+                settings.circuitFailureRateThreshold(), settings.circuitOpenMillis());
+        this.bulkhead = new Semaphore(settings.maxConcurrentCalls());
+        this.latencies = new LatencyWindow(settings.latencyWindowSize());
+        this.hedgeExecutor = hedgeExecutor;
+
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setHttpContextFactory((method, uri) -> createContext());
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+    }
+
+    public <T> T execute(Function<RestClient, T> call) {
+        acquire();
+        try {
+            return attempt(call);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    // Only for idempotent calls: a second call is sent when the first one is slower than the observed p95
+    public <T> T executeHedged(Function<RestClient, T> call) {
+        if(!settings.hedgingEnabled())
+            return execute(call);
+
+        acquire();
+        CompletableFuture<T> primary = attemptAsync(call);
+        try {
+            return primary.get(getHedgeDelayMillis(), TimeUnit.MILLISECONDS);
+        } catch(TimeoutException e) {
+            if(!tryAcquireHedge())
+                return await(primary);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling the " + name + " API", e);
+        } catch(ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+
+        logger.info("Hedging slow call to the {} API...", name);
+        return await(firstSuccessful(List.of(primary, attemptAsync(call))));
+    }
+
+    public long getCurrentTimeoutMillis() {
+        long p99Millis = latencies.getP99Millis();
+        if(!settings.adaptiveTimeoutEnabled() || p99Millis < 0)
+            return settings.responseTimeoutMillis();
+        long adaptiveMillis = (long) Math.ceil(p99Millis * settings.adaptiveTimeoutMultiplier());
+        return Math.min(settings.responseTimeoutMillis(), Math.max(settings.adaptiveTimeoutMinMillis(), adaptiveMillis));
+    }
+
+    CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private HttpClientContext createContext() {
+        // The probe gets the configured timeout, a recovering endpoint may be slower than the latencies seen before
+        long timeoutMillis = circuitBreaker.getState() == CircuitBreaker.State.HALF_OPEN ? settings.responseTimeoutMillis() :
+                getCurrentTimeoutMillis();
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(RequestConfig.custom().
+                setConnectionRequestTimeout(Timeout.ofMilliseconds(settings.poolWaitMillis())).
+                setResponseTimeout(Timeout.ofMilliseconds(timeoutMillis)).
+                build());
+        return context;
+    }
+
+    private void acquire() {
+        try {
+            if(!bulkhead.tryAcquire(settings.bulkheadWaitMillis(), TimeUnit.MILLISECONDS))
+                throw new ExternalApiUnavailableException("The " + name + " API has too many calls in flight");
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to call the " + name + " API", e);
+        }
+        if(!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.release();
+            throw new ExternalApiUnavailableException("The " + name + " API is unavailable");
+        }
+    }
+
+    // A hedge never waits for the bulkhead and is not sent while the circuit only lets a probe through
+    private boolean tryAcquireHedge() {
+        if(!bulkhead.tryAcquire())
+            return false;
+        if(circuitBreaker.tryAcquirePermission())
+            return true;
+        bulkhead.release();
+        return false;
+    }
+
+    private <T> T attempt(Function<RestClient, T> call) {
+        long startedAt = System.nanoTime();
+        try {
+            T result = call.apply(restClient);
+            onResponse(startedAt);
+            return result;
+        } catch(HttpClientErrorException e) {
+            onResponse(startedAt);
+            throw e;
+        } catch(RuntimeException e) {
+            // A timeout is a lower bound of the latency, recording it lets the timeout grow back when the endpoint slows down
+            if(isTimeout(e))
+                latencies.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            circuitBreaker.onFailure();
+            throw e;
+        }
+    }
+
+    private boolean isTimeout(Throwable e) {
+        for(Throwable cause = e; Objects.nonNull(cause); cause = cause.getCause()) {
+            if(cause instanceof SocketTimeoutException)
+                return true;
+        }
+        return false;
+    }
+
+    private <T> CompletableFuture<T> attemptAsync(Function<RestClient, T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return attempt(call);
+            } finally {
+                bulkhead.release();
+            }
+        }, hedgeExecutor);
+    }
+
+    private void onResponse(long startedAt) {
+        latencies.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        circuitBreaker.onSuccess();
+    }
+
+    private long getHedgeDelayMillis() {
+        return Math.max(settings.hedgingMinDelayMillis(), latencies.getP95Millis());
+    }
+
+    private <T> CompletableFuture<T> firstSuccessful(List<CompletableFuture<T>> attempts) {
+        CompletableFuture<T> first = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for(CompletableFuture<T> attempt : attempts) {
+            attempt.whenComplete((result, e) -> {
+                if(Objects.isNull(e))
+                    first.complete(result);
+                else if(failures.incrementAndGet() == attempts.size())
+                    first.completeExceptionally(e);
+            });
+        }
+        return first;
+    }
+
+    private <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling the " + name + " API", e);
+        } catch(ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private RuntimeException unwrap(Throwable e) {
+        Throwable cause = e instanceof CompletionException && Objects.nonNull(e.getCause()) ? e.getCause() : e;
+        if(cause instanceof RuntimeException runtimeException)
+            return runtimeException;
+        return new IllegalStateException("The " + name + " API call failed: " + cause.getMessage(), cause);
+    }
+}
@@ -0,0 +1,61 @@
+package com.soaresdev.picpaytestjr.clients;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Retries are disabled so that the circuit breakers see the real failures
+@Component
+public class ExternalApiClientFactory {
+    private final Environment environment;
+    private final RestClient.Builder restClientBuilder;
+    private final CloseableHttpClient httpClient;
+    // Hedged calls run here, their number is bounded by the bulkheads of the clients
+    private final ExecutorService hedgeExecutor = Executors.newCachedThreadPool();
+
+    public ExternalApiClientFactory(Environment environment, RestClient.Builder restClientBuilder,
+                                    @Value("${external.api.pool.max-total:100}") int maxTotal,
+                                    @Value("${external.api.pool.max-per-route:50}") int maxPerRoute,
+                                    @Value("${external.api.pool.connect-timeout-ms:1000}") long connectTimeoutMillis,
+                                    @Value("${external.api.pool.idle-eviction-ms:30000}") long idleEvictionMillis,
+                                    @Value("${external.api.pool.time-to-live-ms:300000}") long timeToLiveMillis) {
+        this.environment = environment;
+        this.restClientBuilder = restClientBuilder;
+        this.httpClient = HttpClients.custom().
+                setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create().
+                        setMaxConnTotal(maxTotal).
+                        setMaxConnPerRoute(maxPerRoute).
+                        setDefaultConnectionConfig(ConnectionConfig.custom().
+                                setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMillis)).
+                                setTimeToLive(TimeValue.ofMilliseconds(timeToLiveMillis)).
+                                setValidateAfterInactivity(TimeValue.ofSeconds(2)).
+                                build()).
+                        build()).
+                evictExpiredConnections().
+                evictIdleConnections(TimeValue.ofMilliseconds(idleEvictionMillis)).
+                disableAutomaticRetries().
+                build();
+    }
+
+    public ExternalApiClient create(String endpoint, String url) {
+        return new ExternalApiClient(endpoint, ExternalApiSettings.from(environment, endpoint),
+                restClientBuilder.clone().baseUrl(url), httpClient, hedgeExecutor);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        hedgeExecutor.shutdownNow();
+        httpClient.close();
+    }
+}
@@ -0,0 +1,30 @@
+package com.soaresdev.picpaytestjr.clients;
+
+import org.springframework.core.env.Environment;
+
+// Settings of one external API endpoint, read from the properties under external.api.<endpoint>
+record ExternalApiSettings(long responseTimeoutMillis, long poolWaitMillis,
+                           int maxConcurrentCalls, long bulkheadWaitMillis,
+                           int circuitWindowSize, int circuitMinimumCalls, int circuitFailureRateThreshold, long circuitOpenMillis,
+                           boolean adaptiveTimeoutEnabled, double adaptiveTimeoutMultiplier, long adaptiveTimeoutMinMillis, int latencyWindowSize,
+                           boolean hedgingEnabled, long hedgingMinDelayMillis) {
+
+    static ExternalApiSettings from(Environment environment, String endpoint) {
+        String prefix = "external.api." + endpoint + ".";
+        return new ExternalApiSettings(
+                environment.getProperty(prefix + "response-timeout-ms", Long.class, 5_000L),
+                environment.getProperty(prefix + "pool-wait-ms", Long.class, 500L),
+                environment.getProperty(prefix + "bulkhead.max-concurrent-calls", Integer.class, 32),
+                environment.getProperty(prefix + "bulkhead.max-wait-ms", Long.class, 100L),
+                environment.getProperty(prefix + "circuit-breaker.window-size", Integer.class, 50),
+                environment.getProperty(prefix + "circuit-breaker.minimum-calls", Integer.class, 20),
+                environment.getProperty(prefix + "circuit-breaker.failure-rate-threshold", Integer.class, 50),
+                environment.getProperty(prefix + "circuit-breaker.open-ms", Long.class, 10_000L),
+                environment.getProperty(prefix + "adaptive-timeout.enabled", Boolean.class, Boolean.TRUE),
+                environment.getProperty(prefix + "adaptive-timeout.multiplier", Double.class, 3.0),
+                environment.getProperty(prefix + "adaptive-timeout.min-ms", Long.class, 1_500L),
+                environment.getProperty(prefix + "adaptive-timeout.window-size", Integer.class, 200),
+                environment.getProperty(prefix + "hedging.enabled", Boolean.class, Boolean.FALSE),
+                environment.getProperty(prefix + "hedging.min-delay-ms", Long.class, 100L));
+    }
+}
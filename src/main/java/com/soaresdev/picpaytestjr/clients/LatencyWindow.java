@@ -0,0 +1,40 @@
+package com.soaresdev.picpaytestjr.clients;
+
+import java.util.Arrays;
+
+// Latencies of the last answered or timed out calls, with the percentiles recomputed on each sample since a sort is far cheaper than the call
+final class LatencyWindow {
+    private static final int MIN_SAMPLES = 10;
+
+    private final long[] samples;
+    private int next;
+    private int count;
+    private volatile long p95Millis = -1;
+    private volatile long p99Millis = -1;
+
+    LatencyWindow(int size) {
+        this.samples = new long[size];
+    }
+
+    synchronized void record(long millis) {
+        samples[next] = millis;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+        if(count < MIN_SAMPLES)
+            return;
+
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        p95Millis = sorted[(int) Math.ceil(count * 0.95) - 1];
+        p99Millis = sorted[(int) Math.ceil(count * 0.99) - 1];
+    }
+
+    // -1 until there are enough samples
+    long getP95Millis() {
+        return p95Millis;
+    }
+
+    long getP99Millis() {
+        return p99Millis;
+    }
+}
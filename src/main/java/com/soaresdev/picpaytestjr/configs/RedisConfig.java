@@ -1,25 +1,81 @@
 package com.soaresdev.picpaytestjr.configs;
 
+import com.soaresdev.picpaytestjr.caches.CacheGeneration;
+import com.soaresdev.picpaytestjr.caches.CacheValueFormat;
+import com.soaresdev.picpaytestjr.caches.CompactValueSerializer;
+import com.soaresdev.picpaytestjr.caches.EvictingCacheErrorHandler;
+import com.soaresdev.picpaytestjr.caches.TwoLevelCacheManager;
+import com.soaresdev.picpaytestjr.caches.TwoLevelCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.interceptor.CacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
-import org.springframework.data.redis.serializer.RedisSerializer;
 import java.time.Duration;
+import java.util.Set;
 
 @Configuration
-public class RedisConfig {
+public class RedisConfig implements CachingConfigurer {
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory, StringRedisTemplate redisTemplate,
+                                             RedisMessageListenerContainer redisMessageListenerContainer,
+                                             CompactValueSerializer cacheValueSerializer,
+                                             @Value("${cache.local.maximum-size:10000}") long localMaximumSize,
+                                             @Value("${cache.local.ttl-seconds:60}") long localTtlSeconds,
+                                             @Value("${cache.early-refresh.beta:1.0}") double earlyRefreshBeta,
+                                             @Value("${cache.user-profile.ttl-minutes:60}") long profileTtlMinutes,
+                                             @Value("${cache.user-balance.ttl-seconds:30}") long balanceTtlSeconds) {
         RedisCacheConfiguration cacheConfiguration = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(10))
                 .disableCachingNullValues()
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(RedisSerializer.java()));
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(cacheValueSerializer));
 
-        return RedisCacheManager.builder(redisConnectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory)
                 .cacheDefaults(cacheConfiguration)
+                .initialCacheNames(Set.of("users"))
+                .withCacheConfiguration("user-profile", cacheConfiguration.entryTtl(Duration.ofMinutes(profileTtlMinutes)))
+                .withCacheConfiguration("user-balance", cacheConfiguration.entryTtl(Duration.ofSeconds(balanceTtlSeconds)))
+                .enableStatistics()
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoLevelCacheManager(redisCacheManager, redisTemplate, redisMessageListenerContainer,
+                localMaximumSize, Duration.ofSeconds(localTtlSeconds), earlyRefreshBeta);
+    }
+
+    @Bean
+    public CacheGeneration usersCacheGeneration(StringRedisTemplate redisTemplate,
+                                                RedisMessageListenerContainer redisMessageListenerContainer,
+                                                @Value("${cache.generation.refresh-ms:1000}") long refreshMillis) {
+        return new CacheGeneration("users", redisTemplate, redisMessageListenerContainer, Duration.ofMillis(refreshMillis));
+    }
+
+    @Bean
+    public CompactValueSerializer cacheValueSerializer(@Value("${cache.serializer.format:COMPACT}") CacheValueFormat writeFormat,
+                                                       @Value("${cache.serializer.compression-threshold-bytes:1024}") int compressionThreshold) {
+        return new CompactValueSerializer(writeFormat, compressionThreshold);
+    }
+
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new EvictingCacheErrorHandler();
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory) {
+        RedisMessageListenerContainer redisMessageListenerContainer = new RedisMessageListenerContainer();
+        redisMessageListenerContainer.setConnectionFactory(redisConnectionFactory);
+        return redisMessageListenerContainer;
+    }
+
+    @Bean
+    public TwoLevelCacheMetrics twoLevelCacheMetrics(TwoLevelCacheManager cacheManager) {
+        return new TwoLevelCacheMetrics(cacheManager);
     }
 }
@@ -0,0 +1,34 @@
+package com.soaresdev.picpaytestjr.configs;
+
+import com.soaresdev.picpaytestjr.engine.JdbcAccountLoader;
+import com.soaresdev.picpaytestjr.engine.JdbcEngineLease;
+import com.soaresdev.picpaytestjr.engine.JdbcTransferJournal;
+import com.soaresdev.picpaytestjr.engine.TransferEngine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(value = "transfer.execution-mode", havingValue = "IN_MEMORY")
+public class TransferEngineConfig {
+    @Bean(destroyMethod = "close")
+    public JdbcEngineLease transferEngineLease(DataSource dataSource) {
+        return new JdbcEngineLease(dataSource);
+    }
+
+    // Depends on the lease, so the engine is stopped before the lease is released
+    @Bean(destroyMethod = "shutdown")
+    public TransferEngine transferEngine(JdbcEngineLease transferEngineLease, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                         @Value("${transfer.engine.partitions:4}") int partitions,
+                                         @Value("${transfer.engine.journal-batch-size:500}") int journalBatchSize,
+                                         @Value("${transfer.engine.shutdown-timeout-ms:5000}") long shutdownTimeoutMillis) {
+        return new TransferEngine(partitions, journalBatchSize, Duration.ofMillis(shutdownTimeoutMillis),
+                new JdbcAccountLoader(jdbcTemplate), new JdbcTransferJournal(jdbcTemplate, new TransactionTemplate(transactionManager)));
+    }
+}
@@ -0,0 +1,9 @@
+package com.soaresdev.picpaytestjr.engine;
+
+import java.util.UUID;
+
+@FunctionalInterface
+public interface AccountLoader {
+    // Returns null when the user does not exist
+    EngineAccount load(UUID userId);
+}
@@ -0,0 +1,26 @@
+package com.soaresdev.picpaytestjr.engine;
+
+import java.math.BigDecimal;
+
+// Only read and written by the thread of the partition that owns it
+public final class EngineAccount {
+    private final Integer userTypeCode;
+    private BigDecimal balance;
+
+    public EngineAccount(Integer userTypeCode, BigDecimal balance) {
+        this.userTypeCode = userTypeCode;
+        this.balance = balance;
+    }
+
+    public Integer getUserTypeCode() {
+        return userTypeCode;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    void add(BigDecimal amount) {
+        balance = balance.add(amount);
+    }
+}
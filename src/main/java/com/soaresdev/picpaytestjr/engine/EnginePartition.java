@@ -0,0 +1,68 @@
+package com.soaresdev.picpaytestjr.engine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+// Only the partition thread touches its accounts
+final class EnginePartition {
+    private final Logger logger = LoggerFactory.getLogger(EnginePartition.class.getName());
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final Map<UUID, EngineAccount> accounts = new HashMap<>();
+    private final AccountLoader accountLoader;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    EnginePartition(String name, AccountLoader accountLoader) {
+        this.accountLoader = accountLoader;
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void execute(Runnable command) {
+        commands.offer(command);
+        LockSupport.unpark(thread);
+    }
+
+    // Accounts are loaded from the database the first time the partition touches them
+    EngineAccount account(UUID userId) {
+        EngineAccount account = accounts.get(userId);
+        if(Objects.isNull(account)) {
+            account = accountLoader.load(userId);
+            if(Objects.nonNull(account))
+                accounts.put(userId, account);
+        }
+        return account;
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join();
+    }
+
+    private void run() {
+        while(running || !commands.isEmpty()) {
+            Runnable command = commands.poll();
+            if(Objects.isNull(command)) {
+                LockSupport.park(this);
+                continue;
+            }
+            try {
+                command.run();
+            } catch(RuntimeException e) {
+                logger.error("Command failed on {}: {}", thread.getName(), e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.soaresdev.picpaytestjr.engine;
+
+import com.soaresdev.picpaytestjr.entities.enums.TransferStatus;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+public class EngineTransfer {
+    private final UUID uuid;
+    private final UUID payerId;
+    private final UUID payeeId;
+    private final BigDecimal amount;
+    private final CompletableFuture<TransferStatus> applied = new CompletableFuture<>();
+    private final CompletableFuture<TransferStatus> persisted = new CompletableFuture<>();
+    private volatile Instant createdAt;
+
+    EngineTransfer(UUID uuid, UUID payerId, UUID payeeId, BigDecimal amount) {
+        this.uuid = uuid;
+        this.payerId = payerId;
+        this.payeeId = payeeId;
+        this.amount = amount;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public UUID getPayerId() {
+        return payerId;
+    }
+
+    public UUID getPayeeId() {
+        return payeeId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public CompletableFuture<TransferStatus> applied() {
+        return applied;
+    }
+
+    public CompletableFuture<TransferStatus> persisted() {
+        return persisted;
+    }
+
+    void markApplied(Instant createdAt) {
+        this.createdAt = createdAt;
+        applied.complete(TransferStatus.SUCCESS);
+    }
+
+    void markPersisted() {
+        persisted.complete(TransferStatus.SUCCESS);
+    }
+
+    void fail(TransferStatus status) {
+        applied.complete(status);
+        persisted.complete(status);
+    }
+
+    void fail(Throwable cause) {
+        applied.completeExceptionally(cause);
+        persisted.completeExceptionally(cause);
+    }
+}
@@ -0,0 +1,21 @@
+package com.soaresdev.picpaytestjr.engine;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.UUID;
+
+// Recovery is the database itself: every account starts from its committed balance the first time a partition needs it
+public class JdbcAccountLoader implements AccountLoader {
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcAccountLoader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public EngineAccount load(UUID userId) {
+        return jdbcTemplate.query("SELECT user_type_code, balance - held_balance + COALESCE((SELECT SUM(s.balance) " +
+                        "FROM tb_user_balance_stripe s WHERE s.user_id = u.id), 0) AS balance FROM tb_user u WHERE u.id = ?",
+                rs -> rs.next() ? new EngineAccount(rs.getInt("user_type_code"), rs.getBigDecimal("balance")) : null,
+                userId);
+    }
+}
@@ -0,0 +1,44 @@
+package com.soaresdev.picpaytestjr.engine;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// The engine assumes it is the only writer of the balances it caches, so one node at a time holds this session advisory lock
+public class JdbcEngineLease implements AutoCloseable {
+    private static final long LOCK_KEY = 0x7472616E73666572L;
+    private final Connection connection;
+
+    public JdbcEngineLease(DataSource dataSource) {
+        try {
+            this.connection = dataSource.getConnection();
+            if(!execute("SELECT pg_try_advisory_lock(?)")) {
+                connection.close();
+                throw new IllegalStateException("The transfer engine is already running on another node");
+            }
+        } catch(SQLException e) {
+            throw new IllegalStateException("Could not take the transfer engine lease", e);
+        }
+    }
+
+    // The connection goes back to the pool, so the lock is released explicitly instead of with the session
+    @Override
+    public void close() throws SQLException {
+        try {
+            execute("SELECT pg_advisory_unlock(?)");
+        } finally {
+            connection.close();
+        }
+    }
+
+    private boolean execute(String sql) throws SQLException {
+        try(PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, LOCK_KEY);
+            try(ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+}
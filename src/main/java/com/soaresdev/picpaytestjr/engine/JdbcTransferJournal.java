@@ -0,0 +1,53 @@
+package com.soaresdev.picpaytestjr.engine;
+
+import com.soaresdev.picpaytestjr.entities.enums.LedgerEntryType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+// Balances are updated in id order, the same order the locking paths use
+public class JdbcTransferJournal implements TransferJournal {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public JdbcTransferJournal(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void persist(List<EngineTransfer> transfers) {
+        Map<UUID, BigDecimal> deltas = new TreeMap<>();
+        List<Object[]> transferRows = new ArrayList<>(transfers.size());
+        List<Object[]> ledgerRows = new ArrayList<>(2 * transfers.size());
+        List<Object[]> notificationRows = new ArrayList<>(transfers.size());
+        for(EngineTransfer transfer : transfers) {
+            OffsetDateTime createdAt = transfer.getCreatedAt().atOffset(ZoneOffset.UTC);
+            deltas.merge(transfer.getPayerId(), transfer.getAmount().negate(), BigDecimal::add);
+            deltas.merge(transfer.getPayeeId(), transfer.getAmount(), BigDecimal::add);
+            transferRows.add(new Object[]{transfer.getUuid(), transfer.getPayerId(), transfer.getPayeeId(), transfer.getAmount(), createdAt});
+            ledgerRows.add(new Object[]{transfer.getPayerId(), transfer.getUuid(), LedgerEntryType.DEBIT.getCode(), transfer.getAmount().negate(), createdAt});
+            ledgerRows.add(new Object[]{transfer.getPayeeId(), transfer.getUuid(), LedgerEntryType.CREDIT.getCode(), transfer.getAmount(), createdAt});
+            notificationRows.add(new Object[]{transfer.getPayeeId(), transfer.getAmount(), createdAt, createdAt});
+        }
+        List<Object[]> balanceRows = deltas.entrySet().stream().
+                map(delta -> new Object[]{delta.getValue(), delta.getKey()}).toList();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            int[] updatedRows = jdbcTemplate.batchUpdate("UPDATE tb_user SET balance = balance + ? WHERE id = ?", balanceRows);
+            if(Arrays.stream(updatedRows).anyMatch(rows -> rows == 0))
+                throw new IllegalStateException("A user of the batch no longer exists");
+            jdbcTemplate.batchUpdate("INSERT INTO tb_transfer (uuid, payer_id, payee_id, value, created_at) VALUES (?, ?, ?, ?, ?)", transferRows);
+            jdbcTemplate.batchUpdate("INSERT INTO tb_ledger_entry (user_id, transfer_uuid, entry_type_code, amount, created_at) VALUES (?, ?, ?, ?, ?)", ledgerRows);
+            jdbcTemplate.batchUpdate("INSERT INTO tb_notification_outbox (payee_id, value, next_attempt_at, created_at) VALUES (?, ?, ?, ?)", notificationRows);
+        });
+    }
+}
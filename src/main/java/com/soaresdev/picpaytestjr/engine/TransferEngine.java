@@ -0,0 +1,227 @@
+package com.soaresdev.picpaytestjr.engine;
+
+import com.github.f4b6a3.uuid.UuidCreator;
+import com.soaresdev.picpaytestjr.entities.enums.TransferStatus;
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Handing the credit to the payee partition is the only cross-partition step, and it cannot fail
+public class TransferEngine {
+    private final Logger logger = LoggerFactory.getLogger(TransferEngine.class.getName());
+    private final EnginePartition[] partitions;
+    private final TransferJournal journal;
+    private final int journalBatchSize;
+    private final Duration shutdownTimeout;
+    private final Queue<EngineTransfer> journalQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final Set<EngineTransfer> unpersisted = ConcurrentHashMap.newKeySet();
+    private final Thread journalThread;
+    private volatile boolean accepting = true;
+    private volatile boolean journalRunning = true;
+
+    public TransferEngine(int partitionCount, int journalBatchSize, Duration shutdownTimeout,
+                          AccountLoader accountLoader, TransferJournal journal) {
+        if(partitionCount < 1 || journalBatchSize < 1)
+            throw new IllegalArgumentException("Partition count and journal batch size must be positive");
+        this.partitions = new EnginePartition[partitionCount];
+        this.journal = journal;
+        this.journalBatchSize = journalBatchSize;
+        this.shutdownTimeout = shutdownTimeout;
+        for(int i = 0; i < partitionCount; i++) {
+            partitions[i] = new EnginePartition("transfer-engine-" + i, accountLoader);
+            partitions[i].start();
+        }
+        this.journalThread = new Thread(this::runJournal, "transfer-engine-journal");
+        this.journalThread.setDaemon(true);
+        this.journalThread.start();
+        logger.info("Transfer engine started with {} partitions", partitionCount);
+    }
+
+    public EngineTransfer submit(UUID payerId, UUID payeeId, BigDecimal amount) {
+        if(!accepting)
+            throw new IllegalStateException("Transfer engine is shutting down");
+        EngineTransfer transfer = new EngineTransfer(UuidCreator.getTimeOrderedEpoch(), payerId, payeeId, amount);
+        inFlight.incrementAndGet();
+        unpersisted.add(transfer);
+        transfer.persisted().whenComplete((transferStatus, e) -> unpersisted.remove(transfer));
+        partitionOf(payerId).execute(() -> debit(transfer));
+        return transfer;
+    }
+
+    // The balance held in memory, loading it when the partition did not touch the account yet
+    public CompletableFuture<BigDecimal> balanceOf(UUID userId) {
+        CompletableFuture<BigDecimal> balance = new CompletableFuture<>();
+        EnginePartition partition = partitionOf(userId);
+        partition.execute(() -> {
+            try {
+                EngineAccount account = partition.account(userId);
+                balance.complete(Objects.isNull(account) ? null : account.getBalance());
+            } catch(RuntimeException e) {
+                balance.completeExceptionally(e);
+            }
+        });
+        return balance;
+    }
+
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    // Waits for in-flight transfers to be applied and journaled before stopping the threads
+    public void shutdown() throws InterruptedException {
+        accepting = false;
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        while(inFlight.get() > 0 && System.nanoTime() < deadline)
+            Thread.sleep(10);
+        for(EnginePartition partition : partitions)
+            partition.stop();
+        journalRunning = false;
+        LockSupport.unpark(journalThread);
+        journalThread.join(shutdownTimeout.toMillis());
+        // Callers await the outcome without a timeout, so what was not persisted in time completes with an unknown outcome
+        if(!unpersisted.isEmpty()) {
+            logger.warn("Transfer engine stopped with {} transfers not persisted", unpersisted.size());
+            IllegalStateException cause = new IllegalStateException("Transfer engine stopped before the transfer was persisted");
+            unpersisted.forEach(transfer -> transfer.fail(cause));
+        }
+        logger.info("Transfer engine stopped");
+    }
+
+    private EnginePartition partitionOf(UUID userId) {
+        int hash = userId.hashCode();
+        return partitions[Math.floorMod(hash ^ (hash >>> 16), partitions.length)];
+    }
+
+    private void debit(EngineTransfer transfer) {
+        try {
+            EngineAccount payer = partitionOf(transfer.getPayerId()).account(transfer.getPayerId());
+            TransferStatus transferStatus = getValidationStatus(payer, transfer);
+            if(transferStatus != TransferStatus.SUCCESS) {
+                finish(transfer, transferStatus);
+                return;
+            }
+            payer.add(transfer.getAmount().negate());
+        } catch(RuntimeException e) {
+            finish(transfer, e);
+            return;
+        }
+        partitionOf(transfer.getPayeeId()).execute(() -> credit(transfer));
+    }
+
+    private void credit(EngineTransfer transfer) {
+        EngineAccount payee;
+        try {
+            payee = partitionOf(transfer.getPayeeId()).account(transfer.getPayeeId());
+        } catch(RuntimeException e) {
+            refundPayer(transfer);
+            finish(transfer, e);
+            return;
+        }
+        if(Objects.isNull(payee)) {
+            refundPayer(transfer);
+            finish(transfer, TransferStatus.USER_NOT_FOUND);
+            return;
+        }
+        payee.add(transfer.getAmount());
+        transfer.markApplied(Instant.now());
+        journalQueue.offer(transfer);
+        inFlight.decrementAndGet();
+        LockSupport.unpark(journalThread);
+    }
+
+    private TransferStatus getValidationStatus(EngineAccount payer, EngineTransfer transfer) {
+        if(Objects.isNull(payer))
+            return TransferStatus.USER_NOT_FOUND;
+
+        if(payer.getUserTypeCode().equals(UserType.SELLER.getCode()))
+            return TransferStatus.PAYER_IS_SELLER;
+
+        if(payer.getBalance().subtract(transfer.getAmount()).compareTo(BigDecimal.ZERO) < 0)
+            return TransferStatus.NOT_ENOUGH_MONEY;
+
+        if(transfer.getPayerId().equals(transfer.getPayeeId()))
+            return TransferStatus.SELF_TRANSFER;
+        return TransferStatus.SUCCESS;
+    }
+
+    private void refundPayer(EngineTransfer transfer) {
+        EnginePartition partition = partitionOf(transfer.getPayerId());
+        partition.execute(() -> partition.account(transfer.getPayerId()).add(transfer.getAmount()));
+    }
+
+    private void refundPayee(EngineTransfer transfer) {
+        EnginePartition partition = partitionOf(transfer.getPayeeId());
+        partition.execute(() -> partition.account(transfer.getPayeeId()).add(transfer.getAmount().negate()));
+    }
+
+    private void finish(EngineTransfer transfer, TransferStatus transferStatus) {
+        transfer.fail(transferStatus);
+        inFlight.decrementAndGet();
+    }
+
+    private void finish(EngineTransfer transfer, RuntimeException cause) {
+        logger.error("Transfer {} failed in the engine: {}", transfer.getUuid(), cause.getMessage());
+        transfer.fail(cause);
+        inFlight.decrementAndGet();
+    }
+
+    private void runJournal() {
+        List<EngineTransfer> batch = new ArrayList<>(journalBatchSize);
+        while(journalRunning || !journalQueue.isEmpty()) {
+            EngineTransfer transfer;
+            while(batch.size() < journalBatchSize && Objects.nonNull(transfer = journalQueue.poll()))
+                batch.add(transfer);
+            if(batch.isEmpty()) {
+                LockSupport.park(this);
+                continue;
+            }
+            persist(batch);
+            batch.clear();
+        }
+    }
+
+    private void persist(List<EngineTransfer> batch) {
+        try {
+            journal.persist(batch);
+            batch.forEach(EngineTransfer::markPersisted);
+            return;
+        } catch(RuntimeException e) {
+            logger.warn("Could not persist {} transfers, retrying them one by one: {}", batch.size(), e.getMessage());
+        }
+
+        List<EngineTransfer> failedTransfers = new ArrayList<>();
+        List<RuntimeException> causes = new ArrayList<>();
+        for(EngineTransfer transfer : batch) {
+            try {
+                journal.persist(List.of(transfer));
+                transfer.markPersisted();
+            } catch(RuntimeException e) {
+                logger.error("Could not persist transfer {}, reverting it in memory: {}", transfer.getUuid(), e.getMessage());
+                failedTransfers.add(transfer);
+                causes.add(e);
+            }
+        }
+        // Newest first, so the transfers that spent a credit are refunded before the credit is taken back
+        for(int i = failedTransfers.size() - 1; i >= 0; i--) {
+            refundPayer(failedTransfers.get(i));
+            refundPayee(failedTransfers.get(i));
+        }
+        for(int i = 0; i < failedTransfers.size(); i++)
+            failedTransfers.get(i).persisted().completeExceptionally(causes.get(i));
+    }
+}
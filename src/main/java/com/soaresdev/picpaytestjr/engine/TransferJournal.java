@@ -0,0 +1,9 @@
+package com.soaresdev.picpaytestjr.engine;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface TransferJournal {
+    // Persists the whole batch atomically or throws
+    void persist(List<EngineTransfer> transfers);
+}
@@ -0,0 +1,107 @@
+package com.soaresdev.picpaytestjr.entities;
+
+import com.github.f4b6a3.uuid.UuidCreator;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+@Entity
+@Table(name = "tb_balance_hold")
+public class BalanceHold {
+    @Id
+    private UUID id;
+
+    @Column(name = "payer_id", nullable = false)
+    private UUID payerId;
+
+    @Column(name = "payee_id", nullable = false)
+    private UUID payeeId;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public BalanceHold() {
+    }
+
+    public BalanceHold(UUID payerId, UUID payeeId, BigDecimal amount, Instant createdAt, Instant expiresAt) {
+        this.payerId = payerId;
+        this.payeeId = payeeId;
+        this.amount = amount;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    @PrePersist
+    public void generateUuidv7() {
+        if(Objects.isNull(id))
+            id = UuidCreator.getTimeOrderedEpoch();
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getPayerId() {
+        return payerId;
+    }
+
+    public void setPayerId(UUID payerId) {
+        this.payerId = payerId;
+    }
+
+    public UUID getPayeeId() {
+        return payeeId;
+    }
+
+    public void setPayeeId(UUID payeeId) {
+        this.payeeId = payeeId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        BalanceHold that = (BalanceHold) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
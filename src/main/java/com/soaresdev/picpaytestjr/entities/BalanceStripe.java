@@ -0,0 +1,51 @@
+package com.soaresdev.picpaytestjr.entities;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+@Entity
+@Table(name = "tb_user_balance_stripe")
+public class BalanceStripe {
+    @EmbeddedId
+    private BalanceStripeId id;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal balance;
+
+    public BalanceStripe() {
+    }
+
+    public BalanceStripe(BalanceStripeId id, BigDecimal balance) {
+        this.id = id;
+        this.balance = balance;
+    }
+
+    public BalanceStripeId getId() {
+        return id;
+    }
+
+    public void setId(BalanceStripeId id) {
+        this.id = id;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        BalanceStripe that = (BalanceStripe) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
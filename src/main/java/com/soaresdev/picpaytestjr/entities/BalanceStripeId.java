@@ -0,0 +1,52 @@
+package com.soaresdev.picpaytestjr.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+@Embeddable
+public class BalanceStripeId implements Serializable {
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private Integer stripe;
+
+    public BalanceStripeId() {
+    }
+
+    public BalanceStripeId(UUID userId, Integer stripe) {
+        this.userId = userId;
+        this.stripe = stripe;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public Integer getStripe() {
+        return stripe;
+    }
+
+    public void setStripe(Integer stripe) {
+        this.stripe = stripe;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        BalanceStripeId that = (BalanceStripeId) o;
+        return Objects.equals(userId, that.userId) && Objects.equals(stripe, that.stripe);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, stripe);
+    }
+}
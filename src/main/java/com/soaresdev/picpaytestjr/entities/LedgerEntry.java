@@ -0,0 +1,104 @@
+package com.soaresdev.picpaytestjr.entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+@Entity
+@Immutable
+@Table(name = "tb_ledger_entry")
+public class LedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tb_ledger_entry_seq")
+    @SequenceGenerator(name = "tb_ledger_entry_seq", sequenceName = "tb_ledger_entry_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "transfer_uuid")
+    private UUID transferUuid;
+
+    @Column(name = "entry_type_code", nullable = false)
+    private Integer entryTypeCode;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public LedgerEntry() {
+    }
+
+    public LedgerEntry(UUID userId, UUID transferUuid, Integer entryTypeCode, BigDecimal amount, Instant createdAt) {
+        this.userId = userId;
+        this.transferUuid = transferUuid;
+        this.entryTypeCode = entryTypeCode;
+        this.amount = amount;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public UUID getTransferUuid() {
+        return transferUuid;
+    }
+
+    public void setTransferUuid(UUID transferUuid) {
+        this.transferUuid = transferUuid;
+    }
+
+    public Integer getEntryTypeCode() {
+        return entryTypeCode;
+    }
+
+    public void setEntryTypeCode(Integer entryTypeCode) {
+        this.entryTypeCode = entryTypeCode;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        LedgerEntry that = (LedgerEntry) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
@@ -0,0 +1,113 @@
+package com.soaresdev.picpaytestjr.entities;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+@Entity
+@Table(name = "tb_notification_outbox")
+public class NotificationOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tb_notification_outbox_seq")
+    @SequenceGenerator(name = "tb_notification_outbox_seq", sequenceName = "tb_notification_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "payee_id", nullable = false)
+    private UUID payeeId;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal value;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "failed_at")
+    private Instant failedAt;
+
+    public NotificationOutbox() {
+    }
+
+    public NotificationOutbox(UUID payeeId, BigDecimal value, Instant createdAt) {
+        this.payeeId = payeeId;
+        this.value = value;
+        this.createdAt = createdAt;
+        this.nextAttemptAt = createdAt;
+        this.attempts = 0;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public UUID getPayeeId() {
+        return payeeId;
+    }
+
+    public void setPayeeId(UUID payeeId) {
+        this.payeeId = payeeId;
+    }
+
+    public BigDecimal getValue() {
+        return value;
+    }
+
+    public void setValue(BigDecimal value) {
+        this.value = value;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getFailedAt() {
+        return failedAt;
+    }
+
+    public void setFailedAt(Instant failedAt) {
+        this.failedAt = failedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        NotificationOutbox that = (NotificationOutbox) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
@@ -1,5 +1,6 @@
 package com.soaresdev.picpaytestjr.entities;
 
+import com.github.f4b6a3.uuid.UuidCreator;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -10,17 +11,18 @@ import java.util.UUID;
 @Table(name = "tb_transfer")
 public class Transfer {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tb_transfer_seq")
+    @SequenceGenerator(name = "tb_transfer_seq", sequenceName = "tb_transfer_seq", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "UUID DEFAULT gen_random_uuid()")
+    @Column(nullable = false, updatable = false)
     private UUID uuid;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "payer_id", nullable = false)
     private User payer;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "payee_id", nullable = false)
     private User payee;
 
@@ -33,6 +35,12 @@ public class Transfer {
     public Transfer() {
     }
 
+    @PrePersist
+    public void generateUuidv7() {
+        if(Objects.isNull(uuid))
+            uuid = UuidCreator.getTimeOrderedEpoch();
+    }
+
     public Transfer(User payee, User payer, Instant createdAt, BigDecimal value) {
         this.payee = payee;
         this.payer = payer;
@@ -30,6 +30,12 @@ public class User {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal balance;
 
+    @Column(name = "held_balance", nullable = false, precision = 10, scale = 2)
+    private BigDecimal heldBalance = BigDecimal.ZERO;
+
+    @Column(name = "balance_stripes", nullable = false)
+    private Integer balanceStripes = 0;
+
     public User() {
     }
 
@@ -65,6 +71,22 @@ public class User {
         this.balance = balance;
     }
 
+    public BigDecimal getHeldBalance() {
+        return heldBalance;
+    }
+
+    public void setHeldBalance(BigDecimal heldBalance) {
+        this.heldBalance = heldBalance;
+    }
+
+    public Integer getBalanceStripes() {
+        return balanceStripes;
+    }
+
+    public void setBalanceStripes(Integer balanceStripes) {
+        this.balanceStripes = balanceStripes;
+    }
+
     public String getCpfCnpj() {
         return cpfCnpj;
     }
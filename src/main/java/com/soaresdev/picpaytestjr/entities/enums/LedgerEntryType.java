@@ -0,0 +1,25 @@
+package com.soaresdev.picpaytestjr.entities.enums;
+
+public enum LedgerEntryType {
+    OPENING_BALANCE(1),
+    DEBIT(2),
+    CREDIT(3);
+
+    private final Integer code;
+
+    LedgerEntryType(Integer code) {
+        this.code = code;
+    }
+
+    public static LedgerEntryType getFromCode(Integer code) {
+        for(LedgerEntryType ledgerEntryType : LedgerEntryType.values()) {
+            if(ledgerEntryType.getCode().equals(code))
+                return ledgerEntryType;
+        }
+        throw new IllegalArgumentException("Invalid ledger entry type code: " + code);
+    }
+
+    public Integer getCode() {
+        return code;
+    }
+}
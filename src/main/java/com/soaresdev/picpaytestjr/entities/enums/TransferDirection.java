@@ -0,0 +1,7 @@
+package com.soaresdev.picpaytestjr.entities.enums;
+
+public enum TransferDirection {
+    SENT,
+    RECEIVED,
+    ALL
+}
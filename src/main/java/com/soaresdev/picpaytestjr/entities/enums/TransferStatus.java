@@ -0,0 +1,34 @@
+package com.soaresdev.picpaytestjr.entities.enums;
+
+public enum TransferStatus {
+    SUCCESS(0, null),
+    USER_NOT_FOUND(1, "User not found"),
+    PAYER_IS_SELLER(2, "You are not allowed to transfer as a seller"),
+    NOT_ENOUGH_MONEY(3, "You do not have enough money to transfer"),
+    SELF_TRANSFER(4, "You are not allowed to transfer to yourself"),
+    INVALID_ARGUMENTS(5, "Invalid transfer arguments");
+
+    private final Integer code;
+    private final String message;
+
+    TransferStatus(Integer code, String message) {
+        this.code = code;
+        this.message = message;
+    }
+
+    public static TransferStatus getFromCode(Integer code) {
+        for(TransferStatus transferStatus : TransferStatus.values()) {
+            if(transferStatus.getCode().equals(code))
+                return transferStatus;
+        }
+        throw new IllegalArgumentException("Invalid transfer status code: " + code);
+    }
+
+    public Integer getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -23,12 +23,28 @@ public class ExceptionHandlerCenter {
         return ResponseEntity.badRequest().body(getStandardError(HttpStatus.BAD_REQUEST, e, request));
     }
 
+    @ExceptionHandler(InvalidPaginationException.class)
+    public ResponseEntity<StandardError> invalidPagination(InvalidPaginationException e, HttpServletRequest request) {
+        return ResponseEntity.badRequest().body(getStandardError(HttpStatus.BAD_REQUEST, e, request));
+    }
+
+    @ExceptionHandler(InvalidBalanceStripesException.class)
+    public ResponseEntity<StandardError> invalidBalanceStripes(InvalidBalanceStripesException e, HttpServletRequest request) {
+        return ResponseEntity.badRequest().body(getStandardError(HttpStatus.BAD_REQUEST, e, request));
+    }
+
     @ExceptionHandler(EntityExistsException.class)
     public ResponseEntity<StandardError> entityExistsException(EntityExistsException e, HttpServletRequest request) {
         return ResponseEntity.status(HttpStatus.CONFLICT).
                 body(getStandardError(HttpStatus.CONFLICT, e, request));
     }
 
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<StandardError> idempotencyConflictException(IdempotencyConflictException e, HttpServletRequest request) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).
+                body(getStandardError(HttpStatus.CONFLICT, e, request));
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<StandardError> entityNotFoundException(EntityNotFoundException e, HttpServletRequest request) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(getStandardError(HttpStatus.NOT_FOUND, e, request));
@@ -60,6 +76,11 @@ public class ExceptionHandlerCenter {
         return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(getStandardError(HttpStatus.GATEWAY_TIMEOUT, e, request));
     }
 
+    @ExceptionHandler(ExternalApiUnavailableException.class)
+    public ResponseEntity<StandardError> externalApiUnavailable(ExternalApiUnavailableException e, HttpServletRequest request) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(getStandardError(HttpStatus.SERVICE_UNAVAILABLE, e, request));
+    }
+
     private StandardError getStandardError(HttpStatus hs, Exception e, HttpServletRequest request) {
         StandardError standardError = new StandardError();
         standardError.setTimestamp(Instant.now());
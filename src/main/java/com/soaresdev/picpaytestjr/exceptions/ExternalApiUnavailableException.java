@@ -0,0 +1,7 @@
+package com.soaresdev.picpaytestjr.exceptions;
+
+public class ExternalApiUnavailableException extends RuntimeException {
+    public ExternalApiUnavailableException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
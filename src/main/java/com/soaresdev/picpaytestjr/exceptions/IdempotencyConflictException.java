@@ -0,0 +1,7 @@
+package com.soaresdev.picpaytestjr.exceptions;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.soaresdev.picpaytestjr.exceptions;
+
+public class InvalidBalanceStripesException extends RuntimeException {
+    public InvalidBalanceStripesException(String message) {
+        super(message);
+    }
+}
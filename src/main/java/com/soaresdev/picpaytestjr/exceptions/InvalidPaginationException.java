@@ -0,0 +1,7 @@
+package com.soaresdev.picpaytestjr.exceptions;
+
+public class InvalidPaginationException extends RuntimeException {
+    public InvalidPaginationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,28 @@
+package com.soaresdev.picpaytestjr.repositories;
+
+import com.soaresdev.picpaytestjr.entities.BalanceHold;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface BalanceHoldRepository extends JpaRepository<BalanceHold, UUID> {
+    // Holds are always locked before the users they hold money from
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM BalanceHold h WHERE h.id = :id")
+    Optional<BalanceHold> findByIdForUpdate(@Param("id") UUID id);
+
+    // Lock timeout -2 is SKIP LOCKED, so the sweeper never waits on a hold being captured
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT h FROM BalanceHold h WHERE h.expiresAt <= :now ORDER BY h.expiresAt")
+    List<BalanceHold> findExpiredForUpdateSkipLocked(@Param("now") Instant now, Pageable pageable);
+}
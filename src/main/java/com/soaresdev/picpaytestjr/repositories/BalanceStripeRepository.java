@@ -0,0 +1,31 @@
+package com.soaresdev.picpaytestjr.repositories;
+
+import com.soaresdev.picpaytestjr.entities.BalanceStripe;
+import com.soaresdev.picpaytestjr.entities.BalanceStripeId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public interface BalanceStripeRepository extends JpaRepository<BalanceStripe, BalanceStripeId> {
+    // Stripes are created by their first credit, so a stale stripe count never loses money, only picks another row
+    @Modifying
+    @Query(value = "INSERT INTO tb_user_balance_stripe (user_id, stripe, balance) VALUES (:userId, :stripe, :amount) " +
+            "ON CONFLICT (user_id, stripe) DO UPDATE SET balance = tb_user_balance_stripe.balance + EXCLUDED.balance",
+            nativeQuery = true)
+    int credit(@Param("userId") UUID userId, @Param("stripe") int stripe, @Param("amount") BigDecimal amount);
+
+    // Moves every stripe into its user row. Stripes are locked before the user rows, and credits only hold a key share
+    // lock on the payee row, which the balance update does not conflict with.
+    @Modifying
+    @Query(value = "WITH stripes AS (SELECT user_id, stripe, balance FROM tb_user_balance_stripe WHERE balance <> 0 " +
+            "ORDER BY user_id, stripe FOR UPDATE), " +
+            "emptied AS (UPDATE tb_user_balance_stripe b SET balance = b.balance - s.balance FROM stripes s " +
+            "WHERE b.user_id = s.user_id AND b.stripe = s.stripe) " +
+            "UPDATE tb_user u SET balance = u.balance + t.amount " +
+            "FROM (SELECT user_id, SUM(balance) AS amount FROM stripes GROUP BY user_id) t WHERE u.id = t.user_id",
+            nativeQuery = true)
+    int consolidate();
+}
@@ -0,0 +1,36 @@
+package com.soaresdev.picpaytestjr.repositories;
+
+import com.soaresdev.picpaytestjr.entities.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+    // Latest snapshot taken up to the given time plus the entries between both, read on the (user_id, created_at) index
+    @Query(value = "SELECT COALESCE(s.balance, 0) + COALESCE((SELECT SUM(e.amount) FROM tb_ledger_entry e " +
+            "WHERE e.user_id = :userId AND e.created_at >= COALESCE(s.taken_until, '-infinity') AND e.created_at <= :at), 0) " +
+            "FROM (SELECT 1) AS one LEFT JOIN LATERAL (SELECT balance, taken_until FROM tb_balance_snapshot " +
+            "WHERE user_id = :userId AND taken_until <= :at ORDER BY taken_until DESC LIMIT 1) s ON TRUE", nativeQuery = true)
+    BigDecimal findBalanceAt(@Param("userId") UUID userId, @Param("at") Instant at);
+
+    // Rolls the entries created since the previous run into new snapshots of the users that moved, users without entries
+    // in between keep their latest snapshot. Entries must not be created behind the previous run, hence the compaction lag.
+    @Modifying
+    @Query(value = "WITH previous AS (SELECT COALESCE(MAX(taken_until), '-infinity') AS taken_until FROM tb_balance_snapshot), " +
+            "tail AS (SELECT e.user_id, SUM(e.amount) AS amount FROM tb_ledger_entry e, previous p " +
+            "WHERE e.created_at >= p.taken_until AND e.created_at < :until GROUP BY e.user_id), " +
+            "latest AS (SELECT DISTINCT ON (s.user_id) s.user_id, s.balance FROM tb_balance_snapshot s " +
+            "JOIN tail t ON t.user_id = s.user_id ORDER BY s.user_id, s.taken_until DESC) " +
+            "INSERT INTO tb_balance_snapshot (user_id, taken_until, balance) " +
+            "SELECT t.user_id, :until, COALESCE(l.balance, 0) + t.amount FROM tail t LEFT JOIN latest l ON l.user_id = t.user_id",
+            nativeQuery = true)
+    int insertSnapshotsUntil(@Param("until") Instant until);
+
+    // Only one node compacts at a time, the lock is released with the transaction
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('tb_balance_snapshot'))", nativeQuery = true)
+    boolean tryLockSnapshots();
+}
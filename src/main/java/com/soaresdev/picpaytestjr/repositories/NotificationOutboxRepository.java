@@ -0,0 +1,30 @@
+package com.soaresdev.picpaytestjr.repositories;
+
+import com.soaresdev.picpaytestjr.entities.NotificationOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.time.Instant;
+import java.util.List;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+    // Lock timeout -2 is SKIP LOCKED, so each dispatcher node claims rows no other node is holding
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM NotificationOutbox n WHERE n.failedAt IS NULL AND n.nextAttemptAt <= :now ORDER BY n.nextAttemptAt")
+    List<NotificationOutbox> findPendingForUpdateSkipLocked(@Param("now") Instant now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE NotificationOutbox n SET n.nextAttemptAt = :nextAttemptAt WHERE n.id = :id")
+    void updateNextAttemptAt(@Param("id") Long id, @Param("nextAttemptAt") Instant nextAttemptAt);
+
+    @Modifying
+    @Query("UPDATE NotificationOutbox n SET n.failedAt = :failedAt WHERE n.id = :id")
+    void updateFailedAt(@Param("id") Long id, @Param("failedAt") Instant failedAt);
+}
@@ -1,7 +1,54 @@
 package com.soaresdev.picpaytestjr.repositories;
 
 import com.soaresdev.picpaytestjr.entities.Transfer;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferHistoryDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface TransferRepository extends JpaRepository<Transfer, Long> {
-}
\ No newline at end of file
+    @Query(value = "SELECT fn_execute_transfer(:payerEmail, :payeeEmail, :amount, :transferUuid)", nativeQuery = true)
+    Integer executeTransfer(@Param("payerEmail") String payerEmail, @Param("payeeEmail") String payeeEmail,
+                            @Param("amount") BigDecimal amount, @Param("transferUuid") UUID transferUuid);
+
+    // Newest first, read backwards on the (payer_id, created_at, id) index.
+    // The plain created_at bounds let PostgreSQL prune the monthly partitions outside the range.
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.soaresdev.picpaytestjr.v1.dtos.TransferHistoryDto(t.id, t.uuid, payer.email, payee.email, t.value, t.createdAt) " +
+            "FROM Transfer t JOIN t.payer payer JOIN t.payee payee " +
+            "WHERE t.payer.id = :userId AND t.createdAt >= :from AND t.createdAt <= :createdAt " +
+            "AND (t.createdAt, t.id) < (:createdAt, :id) " +
+            "ORDER BY t.createdAt DESC, t.id DESC LIMIT :limit")
+    List<TransferHistoryDto> findSentBefore(@Param("userId") UUID userId, @Param("from") Instant from,
+                                            @Param("createdAt") Instant createdAt, @Param("id") Long id, @Param("limit") int limit);
+
+    // Newest first, read backwards on the (payee_id, created_at, id) index
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.soaresdev.picpaytestjr.v1.dtos.TransferHistoryDto(t.id, t.uuid, payer.email, payee.email, t.value, t.createdAt) " +
+            "FROM Transfer t JOIN t.payer payer JOIN t.payee payee " +
+            "WHERE t.payee.id = :userId AND t.createdAt >= :from AND t.createdAt <= :createdAt " +
+            "AND (t.createdAt, t.id) < (:createdAt, :id) " +
+            "ORDER BY t.createdAt DESC, t.id DESC LIMIT :limit")
+    List<TransferHistoryDto> findReceivedBefore(@Param("userId") UUID userId, @Param("from") Instant from,
+                                                @Param("createdAt") Instant createdAt, @Param("id") Long id, @Param("limit") int limit);
+
+    // Streams must be consumed inside a transaction, the fetch size makes the driver read through a forward-only cursor
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.soaresdev.picpaytestjr.v1.dtos.TransferHistoryDto(t.id, t.uuid, payer.email, payee.email, t.value, t.createdAt) " +
+            "FROM Transfer t JOIN t.payer payer JOIN t.payee payee WHERE t.payer.id = :userId ORDER BY t.createdAt, t.id")
+    Stream<TransferHistoryDto> streamSent(@Param("userId") UUID userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.soaresdev.picpaytestjr.v1.dtos.TransferHistoryDto(t.id, t.uuid, payer.email, payee.email, t.value, t.createdAt) " +
+            "FROM Transfer t JOIN t.payer payer JOIN t.payee payee WHERE t.payee.id = :userId ORDER BY t.createdAt, t.id")
+    Stream<TransferHistoryDto> streamReceived(@Param("userId") UUID userId);
+}
@@ -1,7 +1,22 @@
 package com.soaresdev.picpaytestjr.repositories;
 
 import com.soaresdev.picpaytestjr.entities.User;
+import com.soaresdev.picpaytestjr.v1.dtos.UserBalanceDto;
+import com.soaresdev.picpaytestjr.v1.dtos.UserIdDto;
+import com.soaresdev.picpaytestjr.v1.dtos.UserProfileDto;
+import com.soaresdev.picpaytestjr.v1.dtos.UserResponseDto;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +26,67 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     boolean existsByEmail(String email);
 
     Optional<User> findByEmail(String email);
-}
\ No newline at end of file
+
+    // Rows are locked following the ORDER BY, so concurrent transfers always lock users in the same order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.email IN :emails ORDER BY u.id")
+    List<User> findAllByEmailInForUpdate(@Param("emails") Collection<String> emails);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id IN :ids ORDER BY u.id")
+    List<User> findAllByIdInForUpdate(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT new com.soaresdev.picpaytestjr.v1.dtos.UserIdDto(u.id, u.email) FROM User u WHERE u.email IN :emails")
+    List<UserIdDto> findIdsByEmailIn(@Param("emails") Collection<String> emails);
+
+    // Credits to striped users may still be on their stripes, the balance is the user row plus all of them
+    String BALANCE_WITH_STRIPES = "u.balance + COALESCE((SELECT SUM(s.balance) FROM BalanceStripe s WHERE s.id.userId = u.id), 0)";
+
+    @Query("SELECT new com.soaresdev.picpaytestjr.v1.dtos.UserBalanceDto(u.email, " + BALANCE_WITH_STRIPES + ") " +
+            "FROM User u WHERE u.email = :email")
+    Optional<UserBalanceDto> findBalanceByEmail(@Param("email") String email);
+
+    // Holds only on available money, the row is locked for the length of the statement only
+    @Modifying
+    @Query("UPDATE User u SET u.heldBalance = u.heldBalance + :amount " +
+            "WHERE u.id = :id AND u.userTypeCode = :userTypeCode AND u.balance - u.heldBalance >= :amount")
+    int holdBalance(@Param("id") UUID id, @Param("userTypeCode") Integer userTypeCode, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("UPDATE User u SET u.heldBalance = u.heldBalance - :amount WHERE u.id = :id")
+    int releaseHeldBalance(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    @Query("SELECT u.balanceStripes FROM User u WHERE u.email = :email")
+    Optional<Integer> findBalanceStripesByEmail(@Param("email") String email);
+
+    @Query("SELECT u.balanceStripes FROM User u WHERE u.id = :id")
+    Optional<Integer> findBalanceStripesById(@Param("id") UUID id);
+
+    List<User> findAllByEmailIn(Collection<String> emails);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.soaresdev.picpaytestjr.v1.dtos.UserProfileDto(u.cpfCnpj, u.email, u.fullName, u.id, u.userTypeCode) " +
+            "FROM User u WHERE u.email = :email")
+    Optional<UserProfileDto> findProfileByEmail(@Param("email") String email);
+
+    // Listings select only the exposed columns into DTOs, so no entity, password hash or dirty-checking snapshot is loaded
+    @Transactional(readOnly = true)
+    @Query(value = "SELECT new com.soaresdev.picpaytestjr.v1.dtos.UserResponseDto(u.id, u.fullName, u.userTypeCode, u.cpfCnpj, u.email, " +
+            BALANCE_WITH_STRIPES + ") " +
+            "FROM User u", countQuery = "SELECT count(u) FROM User u")
+    Page<UserResponseDto> findAllListing(Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.soaresdev.picpaytestjr.v1.dtos.UserResponseDto(u.id, u.fullName, u.userTypeCode, u.cpfCnpj, u.email, " +
+            BALANCE_WITH_STRIPES + ") " +
+            "FROM User u ORDER BY u.fullName, u.id LIMIT :limit")
+    List<UserResponseDto> findFirstInListingOrder(@Param("limit") int limit);
+
+    // The keyset only has columns a transfer never updates, so a row cannot move behind the cursor between pages
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.soaresdev.picpaytestjr.v1.dtos.UserResponseDto(u.id, u.fullName, u.userTypeCode, u.cpfCnpj, u.email, " +
+            BALANCE_WITH_STRIPES + ") " +
+            "FROM User u WHERE (u.fullName, u.id) > (:fullName, :id) " +
+            "ORDER BY u.fullName, u.id LIMIT :limit")
+    List<UserResponseDto> findAfterInListingOrder(@Param("fullName") String fullName, @Param("id") UUID id, @Param("limit") int limit);
+}
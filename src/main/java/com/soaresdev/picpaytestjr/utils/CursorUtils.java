@@ -0,0 +1,76 @@
+package com.soaresdev.picpaytestjr.utils;
+
+import com.soaresdev.picpaytestjr.exceptions.InvalidPaginationException;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferCursorDto;
+import com.soaresdev.picpaytestjr.v1.dtos.UserCursorDto;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+public final class CursorUtils {
+
+    private CursorUtils() {
+    }
+
+    public static String encode(UserCursorDto userCursorDto) {
+        return encode(out -> {
+            out.writeUTF(userCursorDto.getFullName());
+            out.writeLong(userCursorDto.getId().getMostSignificantBits());
+            out.writeLong(userCursorDto.getId().getLeastSignificantBits());
+        });
+    }
+
+    public static String encode(TransferCursorDto transferCursorDto) {
+        return encode(out -> {
+            out.writeLong(transferCursorDto.getCreatedAt().getEpochSecond());
+            out.writeInt(transferCursorDto.getCreatedAt().getNano());
+            out.writeLong(transferCursorDto.getId());
+        });
+    }
+
+    public static UserCursorDto decodeUserCursor(String cursor) {
+        return decode(cursor, in -> new UserCursorDto(in.readUTF(), new UUID(in.readLong(), in.readLong())));
+    }
+
+    public static TransferCursorDto decodeTransferCursor(String cursor) {
+        return decode(cursor, in -> new TransferCursorDto(Instant.ofEpochSecond(in.readLong(), in.readInt()), in.readLong()));
+    }
+
+    private static String encode(CursorWriter writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    private static <T> T decode(String cursor, CursorReader<T> reader) {
+        try(DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            T cursorDto = reader.read(in);
+            if(in.available() > 0)
+                throw new InvalidPaginationException("Invalid cursor");
+            return cursorDto;
+        } catch(IOException | IllegalArgumentException | DateTimeException e) {
+            throw new InvalidPaginationException("Invalid cursor");
+        }
+    }
+
+    @FunctionalInterface
+    private interface CursorWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface CursorReader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+}
@@ -2,9 +2,12 @@ package com.soaresdev.picpaytestjr.v1.controllers;
 
 import com.soaresdev.picpaytestjr.exceptions.StandardError;
 import com.soaresdev.picpaytestjr.exceptions.StandardRequestError;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferBatchResultDto;
 import com.soaresdev.picpaytestjr.v1.dtos.TransferDto;
+import com.soaresdev.picpaytestjr.v1.services.IdempotencyService;
 import com.soaresdev.picpaytestjr.v1.services.TransferService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,17 +17,23 @@ import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import java.util.List;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/v1/transfer")
 @Tag(name = "Transfer")
 public class TransferController {
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
     private final TransferService transferService;
+    private final IdempotencyService idempotencyService;
 
-    public TransferController(TransferService transferService) {
+    public TransferController(TransferService transferService, IdempotencyService idempotencyService) {
         this.transferService = transferService;
+        this.idempotencyService = idempotencyService;
     }
 
     @Operation(description = "Do a new transfer", method = "POST")
@@ -32,12 +41,36 @@ public class TransferController {
             @ApiResponse(responseCode = "204", description = "Success. No content", content = @Content),
             @ApiResponse(responseCode = "400", description = "Invalid body arguments", content = @Content(schema = @Schema(implementation = StandardRequestError.class))),
             @ApiResponse(responseCode = "404", description = "Entity not found", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "409", description = "Idempotency key in use, used for a different transfer or with an unknown outcome", content = @Content(schema = @Schema(implementation = StandardError.class))),
             @ApiResponse(responseCode = "422", description = "Something wrong occurred during the transfer", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "503", description = "External API unavailable or overloaded", content = @Content(schema = @Schema(implementation = StandardError.class))),
             @ApiResponse(responseCode = "504", description = "External API error", content = @Content(schema = @Schema(implementation = StandardError.class)))
     })
     @PostMapping(consumes = "application/json")
-    public ResponseEntity<Void> transfer(@RequestBody @Valid TransferDto transferDto) {
-        transferService.transfer(transferDto);
+    public ResponseEntity<Void> transfer(@RequestBody @Valid TransferDto transferDto,
+                                         @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if(Objects.isNull(idempotencyKey))
+            transferService.transfer(transferDto);
+        else
+            idempotencyService.execute("transfer", idempotencyKey, getFingerprint(transferDto),
+                    () -> transferService.transfer(transferDto), transferService::isRejectedBeforeCommit);
         return ResponseEntity.noContent().build();
     }
+
+    @Operation(description = "Do a batch of transfers, reporting the outcome of each one", method = "POST")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(array = @ArraySchema(schema = @Schema(implementation = TransferBatchResultDto.class)))),
+            @ApiResponse(responseCode = "422", description = "Invalid batch size or batch not authorized", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "503", description = "External API unavailable or overloaded", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "504", description = "External API error", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    @PostMapping(value = "/batch", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<List<TransferBatchResultDto>> transferBatch(@RequestBody List<TransferDto> transferDtos) {
+        return ResponseEntity.ok(transferService.transferBatch(transferDtos));
+    }
+
+    private String getFingerprint(TransferDto transferDto) {
+        return transferDto.getPayerEmail() + "|" + transferDto.getPayeeEmail() + "|" +
+                transferDto.getAmount().stripTrailingZeros().toPlainString();
+    }
 }
\ No newline at end of file
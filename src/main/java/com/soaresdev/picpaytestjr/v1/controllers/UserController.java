@@ -1,9 +1,17 @@
 package com.soaresdev.picpaytestjr.v1.controllers;
 
+import com.soaresdev.picpaytestjr.entities.enums.TransferDirection;
 import com.soaresdev.picpaytestjr.exceptions.StandardError;
 import com.soaresdev.picpaytestjr.exceptions.StandardRequestError;
+import com.soaresdev.picpaytestjr.v1.dtos.CursorPageDto;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferHistoryDto;
+import com.soaresdev.picpaytestjr.v1.dtos.UserBalanceDto;
 import com.soaresdev.picpaytestjr.v1.dtos.UserRequestDto;
 import com.soaresdev.picpaytestjr.v1.dtos.UserResponseDto;
+import com.soaresdev.picpaytestjr.v1.services.BalanceStripeService;
+import com.soaresdev.picpaytestjr.v1.services.StatementFormat;
+import com.soaresdev.picpaytestjr.v1.services.TransferHistoryService;
+import com.soaresdev.picpaytestjr.v1.services.TransferStatementService;
 import com.soaresdev.picpaytestjr.v1.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,25 +19,39 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import java.net.URI;
+import java.time.Instant;
 
 @RestController
 @RequestMapping("/v1/user")
 @Tag(name = "User")
 public class UserController {
     private final UserService userService;
+    private final TransferHistoryService transferHistoryService;
+    private final TransferStatementService transferStatementService;
+    private final BalanceStripeService balanceStripeService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, TransferHistoryService transferHistoryService,
+                          TransferStatementService transferStatementService, BalanceStripeService balanceStripeService) {
         this.userService = userService;
+        this.transferHistoryService = transferHistoryService;
+        this.transferStatementService = transferStatementService;
+        this.balanceStripeService = balanceStripeService;
     }
 
     @Operation(description = "Create a new user", method = "POST")
@@ -53,6 +75,17 @@ public class UserController {
         return ResponseEntity.ok(userService.findAll(pageable));
     }
 
+    @Operation(description = "Get users ordered by name, one cursor page at a time", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or size", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    @GetMapping(value = "/cursor", produces = "application/json")
+    public ResponseEntity<CursorPageDto<UserResponseDto>> findAllUsersAfter(@RequestParam(required = false) String after,
+                                                                           @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(userService.findAllAfter(after, size));
+    }
+
     @Operation(description = "Get an user by email", method = "GET")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = UserResponseDto.class))),
@@ -62,4 +95,62 @@ public class UserController {
     public ResponseEntity<UserResponseDto> findByEmail(@PathVariable String email) {
         return ResponseEntity.ok(userService.findUserByEmail(email));
     }
-}
\ No newline at end of file
+
+    @Operation(description = "Get the balance of an user by email, the current one or the one at a given time", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = UserBalanceDto.class))),
+            @ApiResponse(responseCode = "404", description = "Entity not found", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    @GetMapping(value = "/{email}/balance", produces = "application/json")
+    public ResponseEntity<UserBalanceDto> findBalanceByEmail(@PathVariable String email,
+                                                             @RequestParam(required = false) Instant at) {
+        return ResponseEntity.ok(userService.findBalanceByEmail(email, at));
+    }
+
+    @Operation(description = "Spread the credits of a hot seller over a number of balance stripes, 0 turns striping off", method = "PUT")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "No content"),
+            @ApiResponse(responseCode = "400", description = "Invalid stripe count or user type", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "404", description = "Entity not found", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    @PutMapping(value = "/{email}/balance-stripes")
+    public ResponseEntity<Void> setBalanceStripes(@PathVariable String email, @RequestParam int count) {
+        balanceStripeService.setStripes(email, count);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(description = "Get the transfers of an user from the newest to the oldest, one cursor page at a time. " +
+            "Direction is SENT, RECEIVED or ALL, from is inclusive and to is exclusive", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, size or date range", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "404", description = "Entity not found", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    @GetMapping(value = "/{email}/transfers", produces = "application/json")
+    public ResponseEntity<CursorPageDto<TransferHistoryDto>> findTransfers(@PathVariable String email,
+                                                                           @RequestParam(defaultValue = "ALL") TransferDirection direction,
+                                                                           @RequestParam(required = false) Instant from,
+                                                                           @RequestParam(required = false) Instant to,
+                                                                           @RequestParam(required = false) String after,
+                                                                           @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(transferHistoryService.findTransfers(email, direction, from, to, after, size));
+    }
+
+    @Operation(description = "Export the full statement of an user from the oldest transfer to the newest, as CSV or NDJSON", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "404", description = "Entity not found", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    @GetMapping(value = "/{email}/transfers/export")
+    public ResponseEntity<StreamingResponseBody> exportTransfers(@PathVariable String email,
+                                                                 @RequestParam(defaultValue = "CSV") StatementFormat format,
+                                                                 HttpServletRequest request) {
+        StreamingResponseBody statement = transferStatementService.exportStatement(email, format);
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(transferStatementService.getExportTimeoutMillis());
+        return ResponseEntity.ok().
+                contentType(MediaType.parseMediaType(format.getContentType())).
+                header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().
+                        filename("statement." + format.getFileExtension()).build().toString()).
+                body(statement);
+    }
+}
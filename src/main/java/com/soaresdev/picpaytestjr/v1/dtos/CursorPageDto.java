@@ -0,0 +1,65 @@
+package com.soaresdev.picpaytestjr.v1.dtos;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+
+public class CursorPageDto<T extends Serializable> implements Serializable {
+    private List<T> content;
+    private Integer size;
+    private String nextCursor;
+    private Boolean hasNext;
+
+    public CursorPageDto() {
+    }
+
+    public CursorPageDto(List<T> content, Integer size, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.hasNext = Objects.nonNull(nextCursor);
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Boolean getHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(Boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CursorPageDto{");
+        sb.append("content=").append(content);
+        sb.append(", size=").append(size);
+        sb.append(", nextCursor='").append(nextCursor).append('\'');
+        sb.append(", hasNext=").append(hasNext);
+        sb.append('}');
+        return sb.toString();
+    }
+}
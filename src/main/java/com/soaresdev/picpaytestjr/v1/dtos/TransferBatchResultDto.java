@@ -0,0 +1,52 @@
+package com.soaresdev.picpaytestjr.v1.dtos;
+
+import com.soaresdev.picpaytestjr.entities.enums.TransferStatus;
+
+public class TransferBatchResultDto {
+    private Integer index;
+    private TransferStatus status;
+    private String message;
+
+    public TransferBatchResultDto() {
+    }
+
+    public TransferBatchResultDto(Integer index, TransferStatus status, String message) {
+        this.index = index;
+        this.status = status;
+        this.message = message;
+    }
+
+    public Integer getIndex() {
+        return index;
+    }
+
+    public void setIndex(Integer index) {
+        this.index = index;
+    }
+
+    public TransferStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TransferStatus status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TransferBatchResultDto{");
+        sb.append("index=").append(index);
+        sb.append(", status=").append(status);
+        sb.append(", message='").append(message).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
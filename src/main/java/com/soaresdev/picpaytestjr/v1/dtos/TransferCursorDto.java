@@ -0,0 +1,41 @@
+package com.soaresdev.picpaytestjr.v1.dtos;
+
+import java.time.Instant;
+
+public class TransferCursorDto {
+    private Instant createdAt;
+    private Long id;
+
+    public TransferCursorDto() {
+    }
+
+    public TransferCursorDto(Instant createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TransferCursorDto{");
+        sb.append("createdAt=").append(createdAt);
+        sb.append(", id=").append(id);
+        sb.append('}');
+        return sb.toString();
+    }
+}
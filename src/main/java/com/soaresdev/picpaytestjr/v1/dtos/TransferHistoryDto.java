@@ -0,0 +1,90 @@
+package com.soaresdev.picpaytestjr.v1.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public class TransferHistoryDto implements Serializable {
+    private Long id;
+    private UUID uuid;
+    private String payerEmail;
+    private String payeeEmail;
+    private BigDecimal value;
+    private Instant createdAt;
+
+    public TransferHistoryDto() {
+    }
+
+    public TransferHistoryDto(Long id, UUID uuid, String payerEmail, String payeeEmail, BigDecimal value, Instant createdAt) {
+        this.id = id;
+        this.uuid = uuid;
+        this.payerEmail = payerEmail;
+        this.payeeEmail = payeeEmail;
+        this.value = value;
+        this.createdAt = createdAt;
+    }
+
+    // Only used as the keyset tie-breaker, the uuid is the public identifier
+    @JsonIgnore
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public void setUuid(UUID uuid) {
+        this.uuid = uuid;
+    }
+
+    public String getPayerEmail() {
+        return payerEmail;
+    }
+
+    public void setPayerEmail(String payerEmail) {
+        this.payerEmail = payerEmail;
+    }
+
+    public String getPayeeEmail() {
+        return payeeEmail;
+    }
+
+    public void setPayeeEmail(String payeeEmail) {
+        this.payeeEmail = payeeEmail;
+    }
+
+    public BigDecimal getValue() {
+        return value;
+    }
+
+    public void setValue(BigDecimal value) {
+        this.value = value;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TransferHistoryDto{");
+        sb.append("uuid=").append(uuid);
+        sb.append(", payerEmail='").append(payerEmail).append('\'');
+        sb.append(", payeeEmail='").append(payeeEmail).append('\'');
+        sb.append(", value=").append(value);
+        sb.append(", createdAt=").append(createdAt);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package com.soaresdev.picpaytestjr.v1.dtos;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+public class UserBalanceDto implements Serializable {
+    private String email;
+    private BigDecimal balance;
+
+    public UserBalanceDto() {
+    }
+
+    public UserBalanceDto(String email, BigDecimal balance) {
+        this.email = email;
+        this.balance = balance;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        UserBalanceDto that = (UserBalanceDto) o;
+        return Objects.equals(email, that.email) && Objects.equals(balance, that.balance);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(email, balance);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("UserBalanceDto{");
+        sb.append("email='").append(email).append('\'');
+        sb.append(", balance=").append(balance);
+        sb.append('}');
+        return sb.toString();
+    }
+}
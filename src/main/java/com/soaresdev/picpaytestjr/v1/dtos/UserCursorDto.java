@@ -0,0 +1,41 @@
+package com.soaresdev.picpaytestjr.v1.dtos;
+
+import java.util.UUID;
+
+public class UserCursorDto {
+    private String fullName;
+    private UUID id;
+
+    public UserCursorDto() {
+    }
+
+    public UserCursorDto(String fullName, UUID id) {
+        this.fullName = fullName;
+        this.id = id;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("UserCursorDto{");
+        sb.append("fullName='").append(fullName).append('\'');
+        sb.append(", id=").append(id);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,41 @@
+package com.soaresdev.picpaytestjr.v1.dtos;
+
+import java.util.UUID;
+
+public class UserIdDto {
+    private UUID id;
+    private String email;
+
+    public UserIdDto() {
+    }
+
+    public UserIdDto(UUID id, String email) {
+        this.id = id;
+        this.email = email;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("UserIdDto{");
+        sb.append("id=").append(id);
+        sb.append(", email='").append(email).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
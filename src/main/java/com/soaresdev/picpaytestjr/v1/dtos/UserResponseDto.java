@@ -27,6 +27,15 @@ public class UserResponseDto implements Serializable {
         this.userType = userType;
     }
 
+    public UserResponseDto(UUID id, String fullName, Integer userTypeCode, String cpfCnpj, String email, BigDecimal balance) {
+        this(balance, cpfCnpj, email, fullName, id, UserType.getFromCode(userTypeCode));
+    }
+
+    public UserResponseDto(UserProfileDto userProfileDto, BigDecimal balance) {
+        this(balance, userProfileDto.getCpfCnpj(), userProfileDto.getEmail(), userProfileDto.getFullName(),
+                userProfileDto.getId(), userProfileDto.getUserType());
+    }
+
     public UserResponseDto(User user) {
         this(user.getBalance(), user.getCpfCnpj(), user.getEmail(), user.getFullName(),
                 user.getId(), UserType.getFromCode(user.getUserTypeCode()));
@@ -0,0 +1,53 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.entities.BalanceHold;
+import com.soaresdev.picpaytestjr.repositories.BalanceHoldRepository;
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+@Service
+public class BalanceHoldService {
+    private final Logger logger = LoggerFactory.getLogger(BalanceHoldService.class.getName());
+    private final BalanceHoldRepository balanceHoldRepository;
+    private final UserRepository userRepository;
+
+    public BalanceHoldService(BalanceHoldRepository balanceHoldRepository, UserRepository userRepository) {
+        this.balanceHoldRepository = balanceHoldRepository;
+        this.userRepository = userRepository;
+    }
+
+    // A hold already captured or swept is gone, releasing it again does nothing
+    @Transactional
+    public void release(UUID holdId) {
+        balanceHoldRepository.findByIdForUpdate(holdId).ifPresent(balanceHold -> {
+            userRepository.releaseHeldBalance(balanceHold.getPayerId(), balanceHold.getAmount());
+            balanceHoldRepository.delete(balanceHold);
+            logger.info("Hold {} released", holdId);
+        });
+    }
+
+    // Held amounts are released per payer in id order, the order transfers lock users in
+    @Transactional
+    public int releaseExpired(Instant now, int batchSize) {
+        List<BalanceHold> expiredHolds = balanceHoldRepository.findExpiredForUpdateSkipLocked(now, PageRequest.of(0, batchSize));
+        if(expiredHolds.isEmpty())
+            return 0;
+
+        Map<UUID, BigDecimal> heldByPayer = new TreeMap<>();
+        expiredHolds.forEach(balanceHold -> heldByPayer.merge(balanceHold.getPayerId(), balanceHold.getAmount(), BigDecimal::add));
+        heldByPayer.forEach(userRepository::releaseHeldBalance);
+        balanceHoldRepository.deleteAllInBatch(expiredHolds);
+        logger.info("{} expired holds released", expiredHolds.size());
+        return expiredHolds.size();
+    }
+}
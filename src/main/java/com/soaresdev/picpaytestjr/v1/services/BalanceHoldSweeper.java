@@ -0,0 +1,28 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.Instant;
+
+@Component
+@ConditionalOnProperty(value = "transfer.hold.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class BalanceHoldSweeper {
+    private final BalanceHoldService balanceHoldService;
+    private final int batchSize;
+
+    public BalanceHoldSweeper(BalanceHoldService balanceHoldService, @Value("${transfer.hold.sweeper.batch-size:500}") int batchSize) {
+        this.balanceHoldService = balanceHoldService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${transfer.hold.sweeper.interval-ms:1000}")
+    public void sweep() {
+        Instant now = Instant.now();
+        int released;
+        do {
+            released = balanceHoldService.releaseExpired(now, batchSize);
+        } while(released == batchSize);
+    }
+}
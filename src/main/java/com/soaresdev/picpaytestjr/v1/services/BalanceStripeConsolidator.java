@@ -0,0 +1,20 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(value = "transfer.balance-stripes.consolidator.enabled", havingValue = "true", matchIfMissing = true)
+public class BalanceStripeConsolidator {
+    private final BalanceStripeService balanceStripeService;
+
+    public BalanceStripeConsolidator(BalanceStripeService balanceStripeService) {
+        this.balanceStripeService = balanceStripeService;
+    }
+
+    @Scheduled(fixedDelayString = "${transfer.balance-stripes.consolidation-interval-ms:10000}")
+    public void consolidate() {
+        balanceStripeService.consolidate();
+    }
+}
@@ -0,0 +1,73 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.soaresdev.picpaytestjr.entities.User;
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.exceptions.InvalidBalanceStripesException;
+import com.soaresdev.picpaytestjr.repositories.BalanceStripeRepository;
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+// Only sellers can be striped: they never pay, so no debit checks a balance that is partly on the stripes
+@Service
+public class BalanceStripeService {
+    private final Logger logger = LoggerFactory.getLogger(BalanceStripeService.class.getName());
+    private final BalanceStripeRepository balanceStripeRepository;
+    private final UserRepository userRepository;
+    private final Cache<String, Integer> stripesByEmail;
+    private final int maxStripes;
+
+    public BalanceStripeService(BalanceStripeRepository balanceStripeRepository, UserRepository userRepository,
+                                @Value("${transfer.balance-stripes.max-count:64}") int maxStripes,
+                                @Value("${transfer.balance-stripes.cache-ttl-ms:10000}") long cacheTtlMillis) {
+        this.balanceStripeRepository = balanceStripeRepository;
+        this.userRepository = userRepository;
+        this.maxStripes = maxStripes;
+        this.stripesByEmail = Caffeine.newBuilder().maximumSize(100_000).
+                expireAfterWrite(Duration.ofMillis(cacheTtlMillis)).build();
+    }
+
+    // May be stale for the cache ttl, which is safe: stripe credits are always consolidated, whatever the current count
+    public int getStripes(String email) {
+        return stripesByEmail.get(email, key -> userRepository.findBalanceStripesByEmail(key).orElse(0));
+    }
+
+    // Holds only know the payee id, so the count is read from the row instead of the cache
+    public int getStripes(UUID userId) {
+        return userRepository.findBalanceStripesById(userId).orElse(0);
+    }
+
+    @Transactional
+    public void setStripes(String email, int stripes) {
+        if(stripes < 0 || stripes > maxStripes)
+            throw new InvalidBalanceStripesException("Balance stripes must be between 0 and " + maxStripes);
+        User user = userRepository.findByEmail(email).orElseThrow(() -> new EntityNotFoundException("User not found"));
+        if(stripes > 0 && !user.getUserTypeCode().equals(UserType.SELLER.getCode()))
+            throw new InvalidBalanceStripesException("Only sellers can have a striped balance");
+
+        user.setBalanceStripes(stripes);
+        stripesByEmail.invalidate(email);
+        logger.info("Balance of {} set to {} stripes", email, stripes);
+    }
+
+    public void credit(UUID userId, int stripes, UUID transferUuid, BigDecimal amount) {
+        balanceStripeRepository.credit(userId, Math.floorMod(transferUuid.hashCode(), stripes), amount);
+    }
+
+    @Transactional
+    public int consolidate() {
+        int users = balanceStripeRepository.consolidate();
+        if(users > 0)
+            logger.info("Balance stripes of {} users consolidated", users);
+        return users;
+    }
+}
@@ -0,0 +1,141 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.exceptions.IdempotencyConflictException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+@Service
+public class IdempotencyService {
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final String IN_PROGRESS = "IN_PROGRESS|";
+    private static final String COMPLETED = "COMPLETED|";
+    private static final String UNKNOWN = "UNKNOWN|";
+    private static final long WAIT_INTERVAL_MILLIS = 50;
+    // A reservation is only renewed, completed or released by the caller holding its token
+    private static final RedisScript<Long> COMPARE_AND_EXPIRE = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end return 0", Long.class);
+    private static final RedisScript<Long> COMPARE_AND_SET = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) return 1 end return 0", Long.class);
+    private static final RedisScript<Long> COMPARE_AND_DELETE = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0", Long.class);
+    private final Logger logger = LoggerFactory.getLogger(IdempotencyService.class.getName());
+    private final StringRedisTemplate redisTemplate;
+    private final ScheduledExecutorService leaseRenewer = Executors.newSingleThreadScheduledExecutor();
+    private final Duration ttl;
+    private final Duration inProgressTtl;
+    private final Duration waitTimeout;
+
+    public IdempotencyService(StringRedisTemplate redisTemplate,
+                              @Value("${idempotency.ttl-seconds:86400}") long ttlSeconds,
+                              @Value("${idempotency.in-progress-ttl-ms:30000}") long inProgressTtlMillis,
+                              @Value("${idempotency.wait-timeout-ms:5000}") long waitTimeoutMillis) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.inProgressTtl = Duration.ofMillis(inProgressTtlMillis);
+        this.waitTimeout = Duration.ofMillis(waitTimeoutMillis);
+    }
+
+    // failedBeforeCommit tells which errors left nothing committed, only those release the key for a retry
+    public void execute(String scope, String idempotencyKey, String fingerprint, Runnable action,
+                        Predicate<RuntimeException> failedBeforeCommit) {
+        String key = KEY_PREFIX + scope + ":" + idempotencyKey;
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+
+        while(true) {
+            String reservation = IN_PROGRESS + UUID.randomUUID() + "|" + fingerprint;
+            if(Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, reservation, inProgressTtl))) {
+                runReserved(key, reservation, fingerprint, action, failedBeforeCommit);
+                return;
+            }
+
+            String state = redisTemplate.opsForValue().get(key);
+            if(Objects.isNull(state))
+                continue;
+            if(state.equals(COMPLETED + fingerprint)) {
+                logger.info("Replaying completed request for idempotency key {}", idempotencyKey);
+                return;
+            }
+            if(state.equals(UNKNOWN + fingerprint))
+                throw new IdempotencyConflictException("The outcome of a request with the same idempotency key is unknown");
+            if(!state.startsWith(IN_PROGRESS) || !getReservedFingerprint(state).equals(fingerprint))
+                throw new IdempotencyConflictException("Idempotency key already used for a different request");
+            if(System.nanoTime() > deadline)
+                throw new IdempotencyConflictException("A request with the same idempotency key is still in progress");
+            waitForCompletion();
+        }
+    }
+
+    private void runReserved(String key, String reservation, String fingerprint, Runnable action,
+                             Predicate<RuntimeException> failedBeforeCommit) {
+        long renewIntervalMillis = Math.max(1, inProgressTtl.toMillis() / 3);
+        ScheduledFuture<?> renewal = leaseRenewer.scheduleAtFixedRate(() -> renew(key, reservation),
+                renewIntervalMillis, renewIntervalMillis, TimeUnit.MILLISECONDS);
+        try {
+            action.run();
+        } catch(RuntimeException e) {
+            renewal.cancel(false);
+            if(failedBeforeCommit.test(e)) {
+                // Nothing was committed, so the key is released and the client may retry it
+                redisTemplate.execute(COMPARE_AND_DELETE, List.of(key), reservation);
+            } else {
+                logger.warn("Outcome of the request for key {} is unknown: {}", key, e.getMessage());
+                replace(key, reservation, UNKNOWN + fingerprint);
+            }
+            throw e;
+        }
+        renewal.cancel(false);
+        replace(key, reservation, COMPLETED + fingerprint);
+    }
+
+    private void renew(String key, String reservation) {
+        try {
+            Long renewed = redisTemplate.execute(COMPARE_AND_EXPIRE, List.of(key), reservation,
+                    String.valueOf(inProgressTtl.toMillis()));
+            if(!Long.valueOf(1).equals(renewed))
+                logger.warn("Reservation of key {} was lost while its request was running", key);
+        } catch(RuntimeException e) {
+            logger.warn("Could not renew the reservation of key {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void replace(String key, String reservation, String state) {
+        Long replaced = redisTemplate.execute(COMPARE_AND_SET, List.of(key), reservation, state,
+                String.valueOf(ttl.toMillis()));
+        if(!Long.valueOf(1).equals(replaced))
+            logger.warn("Reservation of key {} was lost before its request finished", key);
+    }
+
+    private String getReservedFingerprint(String reservation) {
+        String tokenAndFingerprint = reservation.substring(IN_PROGRESS.length());
+        return tokenAndFingerprint.substring(tokenAndFingerprint.indexOf('|') + 1);
+    }
+
+    private void waitForCompletion() {
+        try {
+            Thread.sleep(WAIT_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for a request with the same idempotency key");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        leaseRenewer.shutdownNow();
+    }
+}
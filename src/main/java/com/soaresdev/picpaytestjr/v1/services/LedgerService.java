@@ -0,0 +1,59 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.entities.LedgerEntry;
+import com.soaresdev.picpaytestjr.entities.Transfer;
+import com.soaresdev.picpaytestjr.entities.enums.LedgerEntryType;
+import com.soaresdev.picpaytestjr.repositories.LedgerEntryRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.UserBalanceDto;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+// Append-only history of tb_user.balance, the current balance is never derived from it
+@Service
+public class LedgerService {
+    private final Logger logger = LoggerFactory.getLogger(LedgerService.class.getName());
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final UserIdResolver userIdResolver;
+
+    public LedgerService(LedgerEntryRepository ledgerEntryRepository, UserIdResolver userIdResolver) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.userIdResolver = userIdResolver;
+    }
+
+    // Saved on the caller's transaction, so the entries are flushed in the same insert batches as the transfers
+    public void recordTransfers(List<Transfer> transfers) {
+        List<LedgerEntry> entries = new ArrayList<>(transfers.size() * 2);
+        for(Transfer transfer : transfers) {
+            entries.add(new LedgerEntry(transfer.getPayer().getId(), transfer.getUuid(), LedgerEntryType.DEBIT.getCode(),
+                    transfer.getValue().negate(), transfer.getCreatedAt()));
+            entries.add(new LedgerEntry(transfer.getPayee().getId(), transfer.getUuid(), LedgerEntryType.CREDIT.getCode(),
+                    transfer.getValue(), transfer.getCreatedAt()));
+        }
+        ledgerEntryRepository.saveAll(entries);
+    }
+
+    public UserBalanceDto findBalanceAt(String email, Instant at) {
+        logger.info("Finding balance of {} at {}...", email, at);
+        UUID userId = userIdResolver.resolve(List.of(email)).get(email);
+        if(Objects.isNull(userId))
+            throw new EntityNotFoundException("User not found");
+        return new UserBalanceDto(email, ledgerEntryRepository.findBalanceAt(userId, at));
+    }
+
+    @Transactional
+    public int compactSnapshots(Instant until) {
+        if(!ledgerEntryRepository.tryLockSnapshots())
+            return 0;
+        int snapshots = ledgerEntryRepository.insertSnapshotsUntil(until);
+        logger.info("{} balance snapshots taken until {}", snapshots, until);
+        return snapshots;
+    }
+}
@@ -0,0 +1,26 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.Instant;
+
+// Snapshots stop a lag behind now, so transactions still in flight cannot commit entries behind a snapshot
+@Component
+@ConditionalOnProperty(value = "ledger.snapshot.enabled", havingValue = "true", matchIfMissing = true)
+public class LedgerSnapshotCompactor {
+    private final LedgerService ledgerService;
+    private final Duration lag;
+
+    public LedgerSnapshotCompactor(LedgerService ledgerService, @Value("${ledger.snapshot.lag-ms:60000}") long lagMillis) {
+        this.ledgerService = ledgerService;
+        this.lag = Duration.ofMillis(lagMillis);
+    }
+
+    @Scheduled(fixedDelayString = "${ledger.snapshot.interval-ms:300000}")
+    public void compact() {
+        ledgerService.compactSnapshots(Instant.now().minus(lag));
+    }
+}
@@ -0,0 +1,71 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.entities.NotificationOutbox;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Component
+@ConditionalOnProperty(value = "notification.outbox.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+public class NotificationOutboxDispatcher {
+    private final Logger logger = LoggerFactory.getLogger(NotificationOutboxDispatcher.class.getName());
+    private final NotificationOutboxService notificationOutboxService;
+    private final NotificationService notificationService;
+    private final ExecutorService executor;
+    private final int batchSize;
+
+    public NotificationOutboxDispatcher(NotificationOutboxService notificationOutboxService, NotificationService notificationService,
+                                        @Value("${notification.outbox.batch-size:50}") int batchSize,
+                                        @Value("${notification.outbox.concurrency:4}") int concurrency) {
+        this.notificationOutboxService = notificationOutboxService;
+        this.notificationService = notificationService;
+        this.batchSize = batchSize;
+        this.executor = Executors.newFixedThreadPool(concurrency);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:500}")
+    public void dispatch() {
+        List<NotificationOutbox> batch;
+        do {
+            batch = notificationOutboxService.claimBatch(batchSize);
+            if(!batch.isEmpty())
+                send(batch);
+        } while(batch.size() == batchSize);
+    }
+
+    private void send(List<NotificationOutbox> batch) {
+        logger.info("Dispatching {} notifications...", batch.size());
+        List<CompletableFuture<Boolean>> deliveries = batch.stream().
+                map(notification -> CompletableFuture.supplyAsync(() -> {
+                    notificationService.notifyUser();
+                    return Boolean.TRUE;
+                }, executor).exceptionally(e -> {
+                    logger.warn("Notification {} failed on attempt {}: {}", notification.getId(),
+                            notification.getAttempts(), e.getMessage());
+                    return Boolean.FALSE;
+                })).toList();
+
+        List<Long> sent = new ArrayList<>();
+        for(int i = 0; i < batch.size(); i++) {
+            if(deliveries.get(i).join())
+                sent.add(batch.get(i).getId());
+            else
+                notificationOutboxService.markFailed(batch.get(i));
+        }
+        notificationOutboxService.markSent(sent);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,83 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.entities.NotificationOutbox;
+import com.soaresdev.picpaytestjr.entities.Transfer;
+import com.soaresdev.picpaytestjr.repositories.NotificationOutboxRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class NotificationOutboxService {
+    private final Logger logger = LoggerFactory.getLogger(NotificationOutboxService.class.getName());
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final Duration lease;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+    private final int maxAttempts;
+
+    public NotificationOutboxService(NotificationOutboxRepository notificationOutboxRepository,
+                                     @Value("${notification.outbox.lease-ms:30000}") long leaseMillis,
+                                     @Value("${notification.outbox.backoff-base-ms:1000}") long backoffBaseMillis,
+                                     @Value("${notification.outbox.backoff-max-ms:300000}") long backoffMaxMillis,
+                                     @Value("${notification.outbox.max-attempts:10}") int maxAttempts) {
+        this.notificationOutboxRepository = notificationOutboxRepository;
+        this.lease = Duration.ofMillis(leaseMillis);
+        this.backoffBase = Duration.ofMillis(backoffBaseMillis);
+        this.backoffMax = Duration.ofMillis(backoffMaxMillis);
+        this.maxAttempts = maxAttempts;
+    }
+
+    public void enqueue(UUID payeeId, BigDecimal value) {
+        notificationOutboxRepository.save(new NotificationOutbox(payeeId, value, Instant.now()));
+    }
+
+    public void enqueueAll(List<Transfer> transfers) {
+        Instant now = Instant.now();
+        notificationOutboxRepository.saveAll(transfers.stream().
+                map(transfer -> new NotificationOutbox(transfer.getPayee().getId(), transfer.getValue(), now)).toList());
+    }
+
+    // Claimed rows are leased: if this node dies before reporting back, they become visible again once the lease ends
+    @Transactional
+    public List<NotificationOutbox> claimBatch(int batchSize) {
+        Instant now = Instant.now();
+        List<NotificationOutbox> batch = notificationOutboxRepository.
+                findPendingForUpdateSkipLocked(now, PageRequest.of(0, batchSize));
+        for(NotificationOutbox notification : batch) {
+            notification.setAttempts(notification.getAttempts() + 1);
+            notification.setNextAttemptAt(now.plus(lease));
+        }
+        return batch;
+    }
+
+    @Transactional
+    public void markSent(List<Long> ids) {
+        if(!ids.isEmpty())
+            notificationOutboxRepository.deleteAllByIdInBatch(ids);
+    }
+
+    @Transactional
+    public void markFailed(NotificationOutbox notification) {
+        if(notification.getAttempts() >= maxAttempts) {
+            logger.error("Giving up on notification {} after {} attempts", notification.getId(), notification.getAttempts());
+            notificationOutboxRepository.updateFailedAt(notification.getId(), Instant.now());
+            return;
+        }
+        notificationOutboxRepository.updateNextAttemptAt(notification.getId(),
+                Instant.now().plus(getBackoff(notification.getAttempts())));
+    }
+
+    private Duration getBackoff(int attempts) {
+        Duration backoff = backoffBase.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(backoffMax) > 0 ? backoffMax : backoff;
+    }
+}
@@ -1,24 +1,26 @@
 package com.soaresdev.picpaytestjr.v1.services;
 
+import com.soaresdev.picpaytestjr.clients.ExternalApiClient;
+import com.soaresdev.picpaytestjr.clients.ExternalApiClientFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
 
 @Service
 public class NotificationService {
     private final Logger logger = LoggerFactory.getLogger(NotificationService.class.getName());
     private final String url;
-    private final RestClient restClient;
+    private final ExternalApiClient apiClient;
 
-    public NotificationService(@Value("${external.api.base-url}") String externalApiBaseUrl, RestClient.Builder restClientBuilder) {
+    public NotificationService(@Value("${external.api.base-url}") String externalApiBaseUrl, ExternalApiClientFactory apiClientFactory) {
         this.url = externalApiBaseUrl + "/api/v1/notify";
-        this.restClient = restClientBuilder.baseUrl(url).build();
+        this.apiClient = apiClientFactory.create("notify", url);
     }
 
+    // Not hedged, a duplicated notification would reach the user twice
     public void notifyUser() {
         logger.info("Sending user notification via external API call to {}...", url);
-        restClient.post().retrieve().toBodilessEntity();
+        apiClient.execute(restClient -> restClient.post().retrieve().toBodilessEntity());
     }
 }
\ No newline at end of file
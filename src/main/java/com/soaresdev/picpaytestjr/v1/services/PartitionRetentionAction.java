@@ -0,0 +1,6 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+public enum PartitionRetentionAction {
+    DETACH,
+    DROP
+}
@@ -0,0 +1,9 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+public enum TransferExecutionMode {
+    ENTITY_LOCKING,
+    SINGLE_STATEMENT,
+    IN_MEMORY,
+    GROUP_COMMIT,
+    HOLD
+}
@@ -0,0 +1,464 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.github.f4b6a3.uuid.UuidCreator;
+import com.soaresdev.picpaytestjr.engine.EngineTransfer;
+import com.soaresdev.picpaytestjr.engine.TransferEngine;
+import com.soaresdev.picpaytestjr.entities.BalanceHold;
+import com.soaresdev.picpaytestjr.entities.Transfer;
+import com.soaresdev.picpaytestjr.entities.User;
+import com.soaresdev.picpaytestjr.entities.enums.TransferStatus;
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.exceptions.TransferException;
+import com.soaresdev.picpaytestjr.repositories.BalanceHoldRepository;
+import com.soaresdev.picpaytestjr.repositories.TransferRepository;
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferBatchResultDto;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferDto;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class TransferExecutionService {
+    private final Logger logger = LoggerFactory.getLogger(TransferExecutionService.class.getName());
+    private final TransferRepository transferRepository;
+    private final UserRepository userRepository;
+    private final BalanceHoldRepository balanceHoldRepository;
+    private final NotificationOutboxService notificationOutboxService;
+    private final LedgerService ledgerService;
+    private final UserIdResolver userIdResolver;
+    private final BalanceStripeService balanceStripeService;
+    private final Validator validator;
+    private final ObjectProvider<TransferEngine> transferEngine;
+    private final ObjectProvider<TransferGroupCommitter> transferGroupCommitter;
+    private final Duration holdTtl;
+
+    public TransferExecutionService(TransferRepository transferRepository, UserRepository userRepository,
+                                    BalanceHoldRepository balanceHoldRepository, NotificationOutboxService notificationOutboxService, LedgerService ledgerService,
+                                    UserIdResolver userIdResolver, BalanceStripeService balanceStripeService, Validator validator,
+                                    ObjectProvider<TransferEngine> transferEngine,
+                                    ObjectProvider<TransferGroupCommitter> transferGroupCommitter,
+                                    @Value("${transfer.hold.ttl-ms:30000}") long holdTtlMillis) {
+        this.transferRepository = transferRepository;
+        this.userRepository = userRepository;
+        this.balanceHoldRepository = balanceHoldRepository;
+        this.notificationOutboxService = notificationOutboxService;
+        this.ledgerService = ledgerService;
+        this.userIdResolver = userIdResolver;
+        this.balanceStripeService = balanceStripeService;
+        this.validator = validator;
+        this.transferEngine = transferEngine;
+        this.transferGroupCommitter = transferGroupCommitter;
+        this.holdTtl = Duration.ofMillis(holdTtlMillis);
+    }
+
+    @Transactional
+    public void executeWithEntityLocking(TransferDto transferDto) {
+        logger.info("Transfer started: {}...", transferDto);
+        // A striped payee is credited on one of its stripes, so only the payer row is locked
+        int payeeStripes = transferDto.getPayerEmail().equals(transferDto.getPayeeEmail()) ? 0 :
+                balanceStripeService.getStripes(transferDto.getPayeeEmail());
+        Map<String, User> lockedUsers = payeeStripes > 0 ? lockUsersByEmail(List.of(transferDto.getPayerEmail())) :
+                lockUsersByEmail(transferDto.getPayerEmail(), transferDto.getPayeeEmail());
+        User payer = getUser(lockedUsers, transferDto.getPayerEmail());
+        User payee = getUser(payeeStripes > 0 ? findUsersByEmail(List.of(transferDto.getPayeeEmail())) : lockedUsers,
+                transferDto.getPayeeEmail());
+
+        validateTransfer(payer, payee, transferDto.getAmount());
+
+        payer.setBalance(payer.getBalance().subtract(transferDto.getAmount()));
+        if(payeeStripes == 0)
+            payee.setBalance(payee.getBalance().add(transferDto.getAmount()));
+        userRepository.saveAll(List.of(payer, payee));
+
+        Transfer transfer = transferRepository.save(new Transfer(payee, payer, Instant.now(), transferDto.getAmount()));
+        if(payeeStripes > 0)
+            balanceStripeService.credit(payee.getId(), payeeStripes, transfer.getUuid(), transferDto.getAmount());
+        ledgerService.recordTransfers(List.of(transfer));
+        notificationOutboxService.enqueue(payee.getId(), transferDto.getAmount());
+        logger.info("Transfer finished: {}", transferDto);
+    }
+
+    @Transactional
+    public void executeWithSingleStatement(TransferDto transferDto) {
+        logger.info("Transfer started on a single statement: {}...", transferDto);
+        throwIfFailed(TransferStatus.getFromCode(transferRepository.executeTransfer(
+                transferDto.getPayerEmail(), transferDto.getPayeeEmail(), transferDto.getAmount(),
+                UuidCreator.getTimeOrderedEpoch())));
+        logger.info("Transfer finished: {}", transferDto);
+    }
+
+    @Transactional
+    public List<TransferBatchResultDto> executeBatch(List<TransferDto> transferDtos) {
+        logger.info("Batch of {} transfers started...", transferDtos.size());
+        List<String> violations = transferDtos.stream().map(this::getConstraintViolations).toList();
+        Set<String> emails = new HashSet<>();
+        Map<String, Integer> payeeStripes = new HashMap<>();
+        for(int i = 0; i < transferDtos.size(); i++) {
+            if(Objects.isNull(violations.get(i))) {
+                TransferDto transferDto = transferDtos.get(i);
+                emails.add(transferDto.getPayerEmail());
+                int stripes = transferDto.getPayerEmail().equals(transferDto.getPayeeEmail()) ? 0 :
+                        balanceStripeService.getStripes(transferDto.getPayeeEmail());
+                if(stripes > 0)
+                    payeeStripes.put(transferDto.getPayeeEmail(), stripes);
+                else
+                    emails.add(transferDto.getPayeeEmail());
+            }
+        }
+        Map<String, User> lockedUsers = emails.isEmpty() ? new HashMap<>() : new HashMap<>(lockUsersByEmail(emails));
+        // Striped payees are credited on their stripes, so they are read after the locks without locking their rows
+        if(!payeeStripes.isEmpty())
+            findUsersByEmail(payeeStripes.keySet()).forEach(lockedUsers::putIfAbsent);
+
+        Instant now = Instant.now();
+        List<Transfer> transfers = new ArrayList<>();
+        List<TransferBatchResultDto> results = new ArrayList<>(transferDtos.size());
+        for(int i = 0; i < transferDtos.size(); i++) {
+            if(Objects.nonNull(violations.get(i))) {
+                results.add(new TransferBatchResultDto(i, TransferStatus.INVALID_ARGUMENTS, violations.get(i)));
+                continue;
+            }
+
+            TransferDto transferDto = transferDtos.get(i);
+            User payer = lockedUsers.get(transferDto.getPayerEmail());
+            User payee = lockedUsers.get(transferDto.getPayeeEmail());
+            TransferStatus transferStatus = Objects.isNull(payer) || Objects.isNull(payee) ?
+                    TransferStatus.USER_NOT_FOUND : getValidationStatus(payer, payee, transferDto.getAmount());
+
+            if(transferStatus == TransferStatus.SUCCESS) {
+                payer.setBalance(payer.getBalance().subtract(transferDto.getAmount()));
+                if(!payeeStripes.containsKey(payee.getEmail()))
+                    payee.setBalance(payee.getBalance().add(transferDto.getAmount()));
+                transfers.add(new Transfer(payee, payer, now, transferDto.getAmount()));
+            }
+            results.add(new TransferBatchResultDto(i, transferStatus, transferStatus.getMessage()));
+        }
+
+        transferRepository.saveAll(transfers);
+        for(Transfer transfer : transfers) {
+            Integer stripes = payeeStripes.get(transfer.getPayee().getEmail());
+            if(Objects.nonNull(stripes))
+                balanceStripeService.credit(transfer.getPayee().getId(), stripes, transfer.getUuid(), transfer.getValue());
+        }
+        ledgerService.recordTransfers(transfers);
+        notificationOutboxService.enqueueAll(transfers);
+        logger.info("Batch finished: {} of {} transfers succeeded", transfers.size(), transferDtos.size());
+        return results;
+    }
+
+    // Phase one of a two-phase transfer: a conditional update holds the amount on the payer's available balance
+    @Transactional
+    public UUID placeHold(TransferDto transferDto) {
+        logger.info("Placing hold for transfer: {}...", transferDto);
+        BalanceHold balanceHold = tryPlaceHold(transferDto);
+        if(Objects.isNull(balanceHold)) {
+            userIdResolver.evict(transferDto.getPayerEmail());
+            userIdResolver.evict(transferDto.getPayeeEmail());
+            balanceHold = tryPlaceHold(transferDto);
+        }
+        if(Objects.isNull(balanceHold))
+            throw new EntityNotFoundException("User not found");
+        logger.info("Hold {} placed", balanceHold.getId());
+        return balanceHold.getId();
+    }
+
+    // Phase two of a two-phase transfer, once authorized: the held amount is moved to the payee
+    @Transactional
+    public void captureHold(UUID holdId) {
+        logger.info("Capturing hold {}...", holdId);
+        BalanceHold balanceHold = balanceHoldRepository.findByIdForUpdate(holdId).
+                orElseThrow(() -> new TransferException("Transfer hold expired"));
+        // The sweeper may not have released it yet, the caller releases it
+        if(!balanceHold.getExpiresAt().isAfter(Instant.now()))
+            throw new TransferException("Transfer hold expired");
+        // A striped payee is credited on one of its stripes, so only the payer row is locked
+        int payeeStripes = balanceStripeService.getStripes(balanceHold.getPayeeId());
+        List<UUID> lockedIds = payeeStripes > 0 ? List.of(balanceHold.getPayerId()) :
+                List.of(balanceHold.getPayerId(), balanceHold.getPayeeId());
+        Map<UUID, User> lockedUsers = userRepository.findAllByIdInForUpdate(lockedIds).
+                stream().collect(Collectors.toMap(User::getId, Function.identity()));
+        User payer = lockedUsers.get(balanceHold.getPayerId());
+        User payee = payeeStripes > 0 ? userRepository.findById(balanceHold.getPayeeId()).orElse(null) :
+                lockedUsers.get(balanceHold.getPayeeId());
+        if(Objects.isNull(payer) || Objects.isNull(payee))
+            throw new EntityNotFoundException("User not found");
+
+        payer.setBalance(payer.getBalance().subtract(balanceHold.getAmount()));
+        payer.setHeldBalance(payer.getHeldBalance().subtract(balanceHold.getAmount()));
+        if(payeeStripes == 0)
+            payee.setBalance(payee.getBalance().add(balanceHold.getAmount()));
+        userRepository.saveAll(List.of(payer, payee));
+        balanceHoldRepository.delete(balanceHold);
+
+        Transfer transfer = transferRepository.save(new Transfer(payee, payer, Instant.now(), balanceHold.getAmount()));
+        if(payeeStripes > 0)
+            balanceStripeService.credit(payee.getId(), payeeStripes, transfer.getUuid(), balanceHold.getAmount());
+        ledgerService.recordTransfers(List.of(transfer));
+        notificationOutboxService.enqueue(payee.getId(), balanceHold.getAmount());
+        logger.info("Hold {} captured", holdId);
+    }
+
+    // Read-only validation run while the transfer is authorized, the execution validates again under its own locks
+    public void precheck(TransferDto transferDto) {
+        TransferStatus transferStatus = getPrecheckStatus(transferDto);
+        if(transferStatus == TransferStatus.USER_NOT_FOUND) {
+            userIdResolver.evict(transferDto.getPayerEmail());
+            userIdResolver.evict(transferDto.getPayeeEmail());
+            transferStatus = getPrecheckStatus(transferDto);
+        }
+        throwIfFailed(transferStatus);
+    }
+
+    // Unknown users are reported per transfer by the execution
+    public void precheckBatch(List<TransferDto> transferDtos) {
+        Set<String> emails = new HashSet<>();
+        for(TransferDto transferDto : transferDtos) {
+            if(Objects.nonNull(transferDto) && Objects.nonNull(transferDto.getPayerEmail()) && Objects.nonNull(transferDto.getPayeeEmail())) {
+                emails.add(transferDto.getPayerEmail());
+                emails.add(transferDto.getPayeeEmail());
+            }
+        }
+        if(!emails.isEmpty())
+            userIdResolver.resolve(emails);
+    }
+
+    // Returns once the group the transfer joined is committed, a group is bounded by its max wait and max size
+    public void executeWithGroupCommit(TransferDto transferDto) {
+        logger.info("Transfer started on a group commit: {}...", transferDto);
+        TransferBatchResultDto result = await(transferGroupCommitter.getObject().submit(transferDto));
+        throwIfFailed(result.getStatus());
+        logger.info("Transfer finished: {}", transferDto);
+    }
+
+    // Returns once the transfer is committed by the engine journal, so an acknowledged transfer is never lost
+    public void executeInMemory(TransferDto transferDto) {
+        logger.info("Transfer started in memory: {}...", transferDto);
+        TransferStatus transferStatus = transferInMemory(transferDto);
+        if(transferStatus == TransferStatus.USER_NOT_FOUND) {
+            userIdResolver.evict(transferDto.getPayerEmail());
+            userIdResolver.evict(transferDto.getPayeeEmail());
+            transferStatus = transferInMemory(transferDto);
+        }
+        throwIfFailed(transferStatus);
+        logger.info("Transfer finished: {}", transferDto);
+    }
+
+    // Each transfer is applied before the next one is submitted, keeping the sequential outcome of the locking batch
+    public List<TransferBatchResultDto> executeBatchInMemory(List<TransferDto> transferDtos) {
+        logger.info("Batch of {} transfers started in memory...", transferDtos.size());
+        List<TransferBatchResultDto> results = new ArrayList<>(transferDtos.size());
+        List<EngineTransfer> appliedTransfers = new ArrayList<>();
+        for(int i = 0; i < transferDtos.size(); i++) {
+            String violations = getConstraintViolations(transferDtos.get(i));
+            if(Objects.nonNull(violations)) {
+                results.add(new TransferBatchResultDto(i, TransferStatus.INVALID_ARGUMENTS, violations));
+                continue;
+            }
+
+            EngineTransfer transfer = submitToEngine(transferDtos.get(i));
+            TransferStatus transferStatus = Objects.isNull(transfer) ? TransferStatus.USER_NOT_FOUND : await(transfer.applied());
+            if(transferStatus == TransferStatus.SUCCESS)
+                appliedTransfers.add(transfer);
+            results.add(new TransferBatchResultDto(i, transferStatus, transferStatus.getMessage()));
+        }
+
+        for(EngineTransfer transfer : appliedTransfers)
+            await(transfer.persisted());
+        logger.info("Batch finished: {} of {} transfers succeeded", appliedTransfers.size(), transferDtos.size());
+        return results;
+    }
+
+    private TransferStatus transferInMemory(TransferDto transferDto) {
+        EngineTransfer transfer = submitToEngine(transferDto);
+        return Objects.isNull(transfer) ? TransferStatus.USER_NOT_FOUND : await(transfer.persisted());
+    }
+
+    private EngineTransfer submitToEngine(TransferDto transferDto) {
+        Map<String, UUID> ids = userIdResolver.resolve(List.of(transferDto.getPayerEmail(), transferDto.getPayeeEmail()));
+        UUID payerId = ids.get(transferDto.getPayerEmail());
+        UUID payeeId = ids.get(transferDto.getPayeeEmail());
+        if(Objects.isNull(payerId) || Objects.isNull(payeeId))
+            return null;
+        return transferEngine.getObject().submit(payerId, payeeId, transferDto.getAmount());
+    }
+
+    // Outcomes are awaited without a timeout, an accepted transfer is always committed or rejected
+    private <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the transfer", e);
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw new IllegalStateException("Transfer failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // Returns null when a user is not found, which may come from a stale indexed id
+    private BalanceHold tryPlaceHold(TransferDto transferDto) {
+        Map<String, UUID> ids = userIdResolver.resolve(List.of(transferDto.getPayerEmail(), transferDto.getPayeeEmail()));
+        UUID payerId = ids.get(transferDto.getPayerEmail());
+        UUID payeeId = ids.get(transferDto.getPayeeEmail());
+        if(Objects.isNull(payerId) || Objects.isNull(payeeId))
+            return null;
+
+        if(payerId.equals(payeeId) || userRepository.holdBalance(payerId, UserType.CUSTOMER.getCode(), transferDto.getAmount()) == 0) {
+            TransferStatus transferStatus = getHoldFailureStatus(payerId, payeeId, transferDto.getAmount());
+            if(transferStatus == TransferStatus.USER_NOT_FOUND)
+                return null;
+            throwIfFailed(transferStatus);
+        }
+        // The hold update only checked the payer
+        if(!userRepository.existsById(payeeId)) {
+            userRepository.releaseHeldBalance(payerId, transferDto.getAmount());
+            return null;
+        }
+
+        Instant now = Instant.now();
+        return balanceHoldRepository.save(new BalanceHold(payerId, payeeId, transferDto.getAmount(), now, now.plus(holdTtl)));
+    }
+
+    private Map<String, User> lockUsersByEmail(String payerEmail, String payeeEmail) {
+        return lockUsersByEmail(List.of(payerEmail, payeeEmail));
+    }
+
+    // Users are locked by primary key through the id index, falling back to the email index when an indexed id is stale
+    private Map<String, User> lockUsersByEmail(Collection<String> emails) {
+        Map<String, UUID> ids = userIdResolver.resolve(emails);
+        Map<String, User> lockedUsers = ids.isEmpty() ? Map.of() : userRepository.findAllByIdInForUpdate(ids.values()).stream().
+                collect(Collectors.toMap(User::getEmail, Function.identity()));
+
+        List<String> staleEmails = ids.keySet().stream().filter(email -> !lockedUsers.containsKey(email)).toList();
+        if(staleEmails.isEmpty())
+            return lockedUsers;
+
+        logger.info("Re-resolving stale user ids: {}", staleEmails);
+        staleEmails.forEach(userIdResolver::evict);
+        Map<String, User> relockedUsers = userRepository.findAllByEmailInForUpdate(emails).stream().
+                collect(Collectors.toMap(User::getEmail, Function.identity()));
+        relockedUsers.values().forEach(user -> userIdResolver.register(user.getEmail(), user.getId()));
+        return relockedUsers;
+    }
+
+    // Reads without locking through the id index, falling back to the email index when an indexed id is stale
+    private Map<String, User> findUsersByEmail(Collection<String> emails) {
+        Map<String, UUID> ids = userIdResolver.resolve(emails);
+        Map<String, User> users = ids.isEmpty() ? Map.of() : userRepository.findAllById(ids.values()).stream().
+                collect(Collectors.toMap(User::getEmail, Function.identity()));
+
+        List<String> staleEmails = ids.keySet().stream().filter(email -> !users.containsKey(email)).toList();
+        if(staleEmails.isEmpty())
+            return users;
+
+        staleEmails.forEach(userIdResolver::evict);
+        Map<String, User> rereadUsers = userRepository.findAllByEmailIn(emails).stream().
+                collect(Collectors.toMap(User::getEmail, Function.identity()));
+        rereadUsers.values().forEach(user -> userIdResolver.register(user.getEmail(), user.getId()));
+        return rereadUsers;
+    }
+
+    private User getUser(Map<String, User> lockedUsers, String email) {
+        User user = lockedUsers.get(email);
+        if(Objects.isNull(user))
+            throw new EntityNotFoundException("User not found");
+        return user;
+    }
+
+    private void validateTransfer(User payer, User payee, BigDecimal amount) {
+        logger.info("Validating transfer...");
+        throwIfFailed(getValidationStatus(payer, payee, amount));
+        logger.info("Transfer validated successfully...");
+    }
+
+    // The in-memory engine owns the balances while it runs, the table lags behind its journal
+    private TransferStatus getPrecheckStatus(TransferDto transferDto) {
+        Map<String, UUID> ids = userIdResolver.resolve(List.of(transferDto.getPayerEmail(), transferDto.getPayeeEmail()));
+        UUID payerId = ids.get(transferDto.getPayerEmail());
+        UUID payeeId = ids.get(transferDto.getPayeeEmail());
+        if(Objects.isNull(payerId) || Objects.isNull(payeeId))
+            return TransferStatus.USER_NOT_FOUND;
+
+        Map<UUID, User> users = userRepository.findAllById(List.of(payerId, payeeId)).stream().
+                collect(Collectors.toMap(User::getId, Function.identity()));
+        User payer = users.get(payerId);
+        User payee = users.get(payeeId);
+        if(Objects.isNull(payer) || Objects.isNull(payee))
+            return TransferStatus.USER_NOT_FOUND;
+
+        TransferEngine engine = transferEngine.getIfAvailable();
+        BigDecimal availableBalance = Objects.isNull(engine) ? payer.getBalance().subtract(payer.getHeldBalance()) :
+                await(engine.balanceOf(payerId));
+        return Objects.isNull(availableBalance) ? TransferStatus.USER_NOT_FOUND :
+                getValidationStatus(payer, payee, transferDto.getAmount(), availableBalance);
+    }
+
+    private TransferStatus getValidationStatus(User payer, User payee, BigDecimal amount) {
+        return getValidationStatus(payer, payee, amount, payer.getBalance().subtract(payer.getHeldBalance()));
+    }
+
+    private TransferStatus getValidationStatus(User payer, User payee, BigDecimal amount, BigDecimal availableBalance) {
+        if(payer.getUserTypeCode().equals(UserType.SELLER.getCode()))
+            return TransferStatus.PAYER_IS_SELLER;
+
+        if(availableBalance.subtract(amount).compareTo(BigDecimal.ZERO) < 0)
+            return TransferStatus.NOT_ENOUGH_MONEY;
+
+        if(payer.getEmail().equals(payee.getEmail()))
+            return TransferStatus.SELF_TRANSFER;
+        return TransferStatus.SUCCESS;
+    }
+
+    // The hold update does not say why it matched no row, so the users are read to report the same error as the other paths
+    private TransferStatus getHoldFailureStatus(UUID payerId, UUID payeeId, BigDecimal amount) {
+        Map<UUID, User> users = userRepository.findAllById(List.of(payerId, payeeId)).stream().
+                collect(Collectors.toMap(User::getId, Function.identity()));
+        User payer = users.get(payerId);
+        User payee = users.get(payeeId);
+        if(Objects.isNull(payer) || Objects.isNull(payee))
+            return TransferStatus.USER_NOT_FOUND;
+        TransferStatus transferStatus = getValidationStatus(payer, payee, amount);
+        return transferStatus == TransferStatus.SUCCESS ? TransferStatus.NOT_ENOUGH_MONEY : transferStatus;
+    }
+
+    private void throwIfFailed(TransferStatus transferStatus) {
+        if(transferStatus == TransferStatus.USER_NOT_FOUND)
+            throw new EntityNotFoundException(transferStatus.getMessage());
+        if(transferStatus != TransferStatus.SUCCESS)
+            throw new TransferException(transferStatus.getMessage());
+    }
+
+    private String getConstraintViolations(TransferDto transferDto) {
+        if(Objects.isNull(transferDto))
+            return "transfer: must not be null";
+        Set<ConstraintViolation<TransferDto>> violations = validator.validate(transferDto);
+        if(violations.isEmpty())
+            return null;
+        return violations.stream().map(violation -> violation.getPropertyPath() + ": " + violation.getMessage()).
+                sorted().collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,124 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.v1.dtos.TransferBatchResultDto;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Concurrent transfers share one commit, a group that fails is retried one transfer at a time
+@Component
+@ConditionalOnProperty(value = "transfer.execution-mode", havingValue = "GROUP_COMMIT")
+public class TransferGroupCommitter {
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final Logger logger = LoggerFactory.getLogger(TransferGroupCommitter.class.getName());
+    private final TransferExecutionService transferExecutionService;
+    private final BlockingQueue<PendingTransfer> pendingTransfers = new LinkedBlockingQueue<>();
+    private final long maxWaitNanos;
+    private final int maxSize;
+    private final List<Thread> committers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public TransferGroupCommitter(TransferExecutionService transferExecutionService,
+                                  @Value("${transfer.group-commit.max-wait-micros:2000}") long maxWaitMicros,
+                                  @Value("${transfer.group-commit.max-size:64}") int maxSize,
+                                  @Value("${transfer.group-commit.committers:1}") int committers) {
+        this.transferExecutionService = transferExecutionService;
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+        this.maxSize = maxSize;
+        for(int i = 0; i < committers; i++) {
+            Thread committer = new Thread(this::runCommitter, "transfer-group-committer-" + i);
+            committer.setDaemon(true);
+            committer.start();
+            this.committers.add(committer);
+        }
+        logger.info("Transfers will be group committed by {} committers, up to {} transfers or {} us per group",
+                committers, maxSize, maxWaitMicros);
+    }
+
+    public CompletableFuture<TransferBatchResultDto> submit(TransferDto transferDto) {
+        if(!running)
+            throw new IllegalStateException("Transfer group commit is shutting down");
+        PendingTransfer pendingTransfer = new PendingTransfer(transferDto);
+        pendingTransfers.add(pendingTransfer);
+        return pendingTransfer.result;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for(Thread committer : committers)
+            committer.join();
+        // A transfer submitted while the committers stopped was never executed, so it fails as rejected
+        List<PendingTransfer> abandoned = new ArrayList<>();
+        pendingTransfers.drainTo(abandoned);
+        abandoned.forEach(pendingTransfer -> pendingTransfer.result.completeExceptionally(
+                new IllegalStateException("Transfer group commit is shutting down")));
+    }
+
+    // The window opens with the first transfer of the group, an idle committer does not delay it
+    private void runCommitter() {
+        List<PendingTransfer> group = new ArrayList<>(maxSize);
+        while(running || !pendingTransfers.isEmpty()) {
+            try {
+                PendingTransfer first = pendingTransfers.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if(Objects.isNull(first))
+                    continue;
+                group.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while(group.size() < maxSize) {
+                    pendingTransfers.drainTo(group, maxSize - group.size());
+                    if(group.size() >= maxSize)
+                        break;
+                    PendingTransfer next = pendingTransfers.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if(Objects.isNull(next))
+                        break;
+                    group.add(next);
+                }
+                commit(group);
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                group.forEach(pendingTransfer -> pendingTransfer.result.completeExceptionally(e));
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingTransfer> group) {
+        try {
+            List<TransferBatchResultDto> results = transferExecutionService.executeBatch(group.stream().
+                    map(pendingTransfer -> pendingTransfer.transferDto).toList());
+            for(int i = 0; i < group.size(); i++)
+                group.get(i).result.complete(results.get(i));
+        } catch(RuntimeException e) {
+            if(group.size() == 1) {
+                group.get(0).result.completeExceptionally(e);
+                return;
+            }
+            logger.warn("Group of {} transfers failed, committing them one by one: {}", group.size(), e.getMessage());
+            group.forEach(pendingTransfer -> commit(List.of(pendingTransfer)));
+        }
+    }
+
+    private static final class PendingTransfer {
+        private final TransferDto transferDto;
+        private final CompletableFuture<TransferBatchResultDto> result = new CompletableFuture<>();
+
+        private PendingTransfer(TransferDto transferDto) {
+            this.transferDto = transferDto;
+        }
+    }
+}
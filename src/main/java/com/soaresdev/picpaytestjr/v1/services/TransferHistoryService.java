@@ -0,0 +1,79 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.entities.enums.TransferDirection;
+import com.soaresdev.picpaytestjr.exceptions.InvalidPaginationException;
+import com.soaresdev.picpaytestjr.repositories.TransferRepository;
+import com.soaresdev.picpaytestjr.utils.CursorUtils;
+import com.soaresdev.picpaytestjr.v1.dtos.CursorPageDto;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferCursorDto;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferHistoryDto;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Service
+public class TransferHistoryService {
+    private static final Instant MAX_CREATED_AT = Instant.parse("9999-12-31T23:59:59Z");
+    private static final Comparator<TransferHistoryDto> NEWEST_FIRST = Comparator.comparing(TransferHistoryDto::getCreatedAt).
+            thenComparing(TransferHistoryDto::getId).reversed();
+
+    private final Logger logger = LoggerFactory.getLogger(TransferHistoryService.class.getName());
+    private final TransferRepository transferRepository;
+    private final UserIdResolver userIdResolver;
+    private final int cursorMaxSize;
+
+    public TransferHistoryService(TransferRepository transferRepository, UserIdResolver userIdResolver,
+                                  @Value("${user.cursor.max-size:100}") int cursorMaxSize) {
+        this.transferRepository = transferRepository;
+        this.userIdResolver = userIdResolver;
+        this.cursorMaxSize = cursorMaxSize;
+    }
+
+    // Pages go from the newest transfer to the oldest, "from" is inclusive and "to" is exclusive
+    public CursorPageDto<TransferHistoryDto> findTransfers(String email, TransferDirection direction, Instant from,
+                                                           Instant to, String after, int size) {
+        logger.info("Finding {} transfers of {} after cursor {}...", direction, email, after);
+        if(size < 1 || size > cursorMaxSize)
+            throw new InvalidPaginationException("Size must be between 1 and " + cursorMaxSize);
+        from = Objects.requireNonNullElse(from, Instant.EPOCH);
+        to = Objects.requireNonNullElse(to, MAX_CREATED_AT);
+        if(!from.isBefore(to))
+            throw new InvalidPaginationException("From must be before to");
+
+        UUID userId = userIdResolver.resolve(List.of(email)).get(email);
+        if(Objects.isNull(userId))
+            throw new EntityNotFoundException("User not found");
+
+        // The first page starts right below "to", the id lower than any sequence value makes the bound exclusive
+        TransferCursorDto cursor = Objects.isNull(after) || after.isBlank() ?
+                new TransferCursorDto(to, Long.MIN_VALUE) : CursorUtils.decodeTransferCursor(after);
+        if(cursor.getCreatedAt().isAfter(to))
+            cursor = new TransferCursorDto(to, Long.MIN_VALUE);
+
+        List<TransferHistoryDto> transfers = switch(direction) {
+            case SENT -> transferRepository.findSentBefore(userId, from, cursor.getCreatedAt(), cursor.getId(), size + 1);
+            case RECEIVED -> transferRepository.findReceivedBefore(userId, from, cursor.getCreatedAt(), cursor.getId(), size + 1);
+            // Each side keeps its own index range scan, and a user never transfers to themselves, so merging cannot duplicate rows
+            case ALL -> Stream.concat(
+                    transferRepository.findSentBefore(userId, from, cursor.getCreatedAt(), cursor.getId(), size + 1).stream(),
+                    transferRepository.findReceivedBefore(userId, from, cursor.getCreatedAt(), cursor.getId(), size + 1).stream()).
+                    sorted(NEWEST_FIRST).limit(size + 1L).toList();
+        };
+
+        String nextCursor = null;
+        if(transfers.size() > size) {
+            transfers = List.copyOf(transfers.subList(0, size));
+            TransferHistoryDto last = transfers.get(size - 1);
+            nextCursor = CursorUtils.encode(new TransferCursorDto(last.getCreatedAt(), last.getId()));
+        }
+        return new CursorPageDto<>(transfers, size, nextCursor);
+    }
+}
@@ -0,0 +1,97 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Partitions are created months ahead so the default partition stays empty
+@Component
+@ConditionalOnProperty(value = "transfer.partition.manager.enabled", havingValue = "true", matchIfMissing = true)
+public class TransferPartitionManager {
+    private static final Pattern PARTITION_NAME = Pattern.compile("tb_transfer_p(\\d{4})(\\d{2})");
+
+    private final Logger logger = LoggerFactory.getLogger(TransferPartitionManager.class.getName());
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final PartitionRetentionAction retentionAction;
+
+    public TransferPartitionManager(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                    @Value("${transfer.partition.months-ahead:3}") int monthsAhead,
+                                    @Value("${transfer.partition.retention-months:0}") int retentionMonths,
+                                    @Value("${transfer.partition.retention-action:DETACH}") PartitionRetentionAction retentionAction) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.retentionAction = retentionAction;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${transfer.partition.check-interval-ms:3600000}")
+    public void managePartitions() {
+        YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
+        for(int i = 0; i <= monthsAhead; i++)
+            createPartition(currentMonth.plusMonths(i));
+        if(retentionMonths > 0)
+            removeExpiredPartitions(currentMonth.minusMonths(retentionMonths));
+    }
+
+    private void createPartition(YearMonth month) {
+        try {
+            Boolean created = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(
+                    "SELECT fn_create_transfer_partition(?)", Boolean.class, month.atDay(1)));
+            if(Boolean.TRUE.equals(created))
+                logger.info("Transfer partition created for {}", month);
+        } catch(DataAccessException e) {
+            // e.g. the default partition already holds rows of that month
+            logger.error("Could not create the transfer partition for {}: {}", month, e.getMessage());
+        }
+    }
+
+    // A partition is expired when its whole month is before the oldest month kept
+    private void removeExpiredPartitions(YearMonth oldestKeptMonth) {
+        List<String> partitions = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'tb_transfer'::regclass", String.class);
+        for(String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if(!matcher.matches())
+                continue;
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if(month.isBefore(oldestKeptMonth))
+                removePartition(partition);
+        }
+    }
+
+    private void removePartition(String partition) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(hashtext('tb_transfer_partitions'))::TEXT", String.class);
+                // Another node may have removed it while this one waited for the lock
+                if(!Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'tb_transfer'::regclass AND c.relname = ?)",
+                        Boolean.class, partition)))
+                    return;
+                if(retentionAction == PartitionRetentionAction.DROP)
+                    jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                else
+                    jdbcTemplate.execute("ALTER TABLE tb_transfer DETACH PARTITION " + partition);
+            });
+            logger.info("Expired transfer partition {} ({})", partition, retentionAction);
+        } catch(DataAccessException e) {
+            logger.error("Could not remove the expired transfer partition {}: {}", partition, e.getMessage());
+        }
+    }
+}
@@ -1,80 +1,193 @@
 package com.soaresdev.picpaytestjr.v1.services;
 
-import com.soaresdev.picpaytestjr.entities.Transfer;
-import com.soaresdev.picpaytestjr.entities.User;
-import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.caches.CacheGeneration;
+import com.soaresdev.picpaytestjr.entities.enums.TransferStatus;
+import com.soaresdev.picpaytestjr.exceptions.ExternalApiUnavailableException;
 import com.soaresdev.picpaytestjr.exceptions.TransferException;
-import com.soaresdev.picpaytestjr.repositories.TransferRepository;
-import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferBatchResultDto;
 import com.soaresdev.picpaytestjr.v1.dtos.TransferDto;
+import jakarta.annotation.PreDestroy;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
-import java.math.BigDecimal;
-import java.time.Instant;
+import org.springframework.web.client.RestClientException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class TransferService {
     private final Logger logger = LoggerFactory.getLogger(TransferService.class.getName());
-    private final TransferRepository transferRepository;
-    private final UserRepository userRepository;
+    private final TransferExecutionService transferExecutionService;
     private final AuthorizationService authorizationService;
-    private final NotificationService notificationService;
+    private final BalanceHoldService balanceHoldService;
+    private final CacheManager cacheManager;
+    private final CacheGeneration usersCacheGeneration;
+    private final TransferExecutionMode executionMode;
+    private final int batchMaxSize;
+    private final ExecutorService authorizationExecutor;
 
-    public TransferService(UserRepository userRepository, TransferRepository transferRepository, AuthorizationService authorizationService, NotificationService notificationService) {
-        this.userRepository = userRepository;
-        this.transferRepository = transferRepository;
+    public TransferService(TransferExecutionService transferExecutionService, AuthorizationService authorizationService,
+                           BalanceHoldService balanceHoldService, CacheManager cacheManager, CacheGeneration usersCacheGeneration,
+                           @Value("${transfer.execution-mode:ENTITY_LOCKING}") TransferExecutionMode executionMode,
+                           @Value("${transfer.batch.max-size:1000}") int batchMaxSize,
+                           @Value("${transfer.authorization.concurrency:64}") int authorizationConcurrency,
+                           @Value("${transfer.authorization.queue-size:256}") int authorizationQueueSize) {
+        this.transferExecutionService = transferExecutionService;
         this.authorizationService = authorizationService;
-        this.notificationService = notificationService;
+        this.balanceHoldService = balanceHoldService;
+        this.cacheManager = cacheManager;
+        this.usersCacheGeneration = usersCacheGeneration;
+        this.executionMode = executionMode;
+        this.batchMaxSize = batchMaxSize;
+        this.authorizationExecutor = new ThreadPoolExecutor(authorizationConcurrency, authorizationConcurrency, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(authorizationQueueSize), new ThreadPoolExecutor.AbortPolicy());
+        logger.info("Transfers will be executed with mode {}", executionMode);
     }
 
-    @Transactional
-    @Caching(evict = {@CacheEvict(value = "user-cache", key = "#transferDto.payerEmail"),
-            @CacheEvict(value = "user-cache", key = "#transferDto.payeeEmail"),
-            @CacheEvict(value = "users", allEntries = true)})
     public void transfer(TransferDto transferDto) {
-        if(!authorizationService.isAuthorized())
-            throw new TransferException("Transfer not authorized");
-        doTransfer(transferDto);
+        if(executionMode == TransferExecutionMode.HOLD) {
+            transferWithHold(transferDto);
+        } else {
+            Future<Boolean> authorization = authorize();
+            try {
+                transferExecutionService.precheck(transferDto);
+            } catch(RuntimeException e) {
+                authorization.cancel(true);
+                throw e;
+            }
+            if(!awaitAuthorization(authorization))
+                throw new TransferException("Transfer not authorized");
+            doTransfer(transferDto);
+        }
+        evictCaches(List.of(transferDto.getPayerEmail(), transferDto.getPayeeEmail()));
     }
 
-    private void doTransfer(TransferDto transferDto) {
-        logger.info("Transfer started: {}...", transferDto);
-        User payer = getUserEntityByEmail(transferDto.getPayerEmail());
-        User payee = getUserEntityByEmail(transferDto.getPayeeEmail());
+    // Validation errors and authorizer failures all happen before the transfer is committed
+    public boolean isRejectedBeforeCommit(RuntimeException e) {
+        return e instanceof TransferException || e instanceof EntityNotFoundException ||
+                e instanceof ExternalApiUnavailableException || e instanceof RestClientException;
+    }
 
-        validateTransfer(payer, payee, transferDto.getAmount());
+    // The external authorizer does not take the transfer as input, so one call authorizes the whole batch while its users are resolved
+    public List<TransferBatchResultDto> transferBatch(List<TransferDto> transferDtos) {
+        if(transferDtos.isEmpty() || transferDtos.size() > batchMaxSize)
+            throw new TransferException("A batch must have between 1 and " + batchMaxSize + " transfers");
+        Future<Boolean> authorization = authorize();
+        try {
+            transferExecutionService.precheckBatch(transferDtos);
+        } catch(RuntimeException e) {
+            authorization.cancel(true);
+            throw e;
+        }
+        if(!awaitAuthorization(authorization))
+            throw new TransferException("Transfer not authorized");
+
+        List<TransferBatchResultDto> results = executionMode == TransferExecutionMode.IN_MEMORY ?
+                transferExecutionService.executeBatchInMemory(transferDtos) : transferExecutionService.executeBatch(transferDtos);
+        evictBatchCaches(transferDtos, results);
+        return results;
+    }
 
-        payer.setBalance(payer.getBalance().subtract(transferDto.getAmount()));
-        payee.setBalance(payee.getBalance().add(transferDto.getAmount()));
-        userRepository.saveAll(List.of(payer, payee));
+    // The amount is held while the authorizer is called, with no connection or lock held during the call
+    private void transferWithHold(TransferDto transferDto) {
+        Future<Boolean> authorization = authorize();
+        UUID holdId;
+        try {
+            holdId = transferExecutionService.placeHold(transferDto);
+        } catch(RuntimeException e) {
+            authorization.cancel(true);
+            throw e;
+        }
+        boolean authorized;
+        try {
+            authorized = awaitAuthorization(authorization);
+        } catch(RuntimeException e) {
+            balanceHoldService.release(holdId);
+            throw e;
+        }
+        if(!authorized) {
+            balanceHoldService.release(holdId);
+            throw new TransferException("Transfer not authorized");
+        }
+        try {
+            transferExecutionService.captureHold(holdId);
+        } catch(RuntimeException e) {
+            balanceHoldService.release(holdId);
+            throw e;
+        }
+    }
 
-        transferRepository.save(new Transfer(payee, payer, Instant.now(), transferDto.getAmount()));
+    // The authorizer does not take the transfer as input, so it is called as soon as the request arrives
+    private Future<Boolean> authorize() {
+        try {
+            return authorizationExecutor.submit(authorizationService::isAuthorized);
+        } catch(RejectedExecutionException e) {
+            throw new ExternalApiUnavailableException("Too many transfers are waiting for the authorizer");
+        }
+    }
 
-        notificationService.notifyUser();
-        logger.info("Transfer finished: {}", transferDto);
+    private boolean awaitAuthorization(Future<Boolean> authorization) {
+        try {
+            return authorization.get();
+        } catch(InterruptedException e) {
+            authorization.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the authorization", e);
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw new IllegalStateException("Authorization failed: " + e.getCause().getMessage(), e.getCause());
+        }
     }
 
-    private User getUserEntityByEmail(String email) {
-        return userRepository.findByEmail(email).
-                orElseThrow(() -> new EntityNotFoundException("User not found"));
+    private void doTransfer(TransferDto transferDto) {
+        switch(executionMode) {
+            case ENTITY_LOCKING -> transferExecutionService.executeWithEntityLocking(transferDto);
+            case SINGLE_STATEMENT -> transferExecutionService.executeWithSingleStatement(transferDto);
+            case IN_MEMORY -> transferExecutionService.executeInMemory(transferDto);
+            case GROUP_COMMIT -> transferExecutionService.executeWithGroupCommit(transferDto);
+        }
     }
 
-    private void validateTransfer(User payer, User payee, BigDecimal amount) {
-        logger.info("Validating transfer...");
-        if(payer.getUserTypeCode().equals(UserType.SELLER.getCode()))
-            throw new TransferException("You are not allowed to transfer as a seller");
+    private void evictBatchCaches(List<TransferDto> transferDtos, List<TransferBatchResultDto> results) {
+        List<String> emails = new ArrayList<>();
+        for(TransferBatchResultDto result : results) {
+            if(result.getStatus() != TransferStatus.SUCCESS)
+                continue;
+            TransferDto transferDto = transferDtos.get(result.getIndex());
+            emails.add(transferDto.getPayerEmail());
+            emails.add(transferDto.getPayeeEmail());
+        }
+        if(!emails.isEmpty())
+            evictCaches(emails);
+    }
 
-        if(payer.getBalance().subtract(amount).compareTo(BigDecimal.ZERO) < 0)
-            throw new TransferException("You do not have enough money to transfer");
+    // Runs after the commit, so a cache failure must not turn a committed transfer into an error, the entries expire by TTL
+    private void evictCaches(List<String> emails) {
+        try {
+            Cache balanceCache = Objects.requireNonNull(cacheManager.getCache("user-balance"));
+            emails.forEach(balanceCache::evict);
+            usersCacheGeneration.increment();
+        } catch(RuntimeException e) {
+            logger.warn("Could not evict the caches of {}: {}", emails, e.getMessage());
+        }
+    }
 
-        if(payer.getEmail().equals(payee.getEmail()))
-            throw new TransferException("You are not allowed to transfer to yourself");
-        logger.info("Transfer validated successfully...");
+    @PreDestroy
+    public void shutdown() {
+        authorizationExecutor.shutdownNow();
     }
 }
\ No newline at end of file
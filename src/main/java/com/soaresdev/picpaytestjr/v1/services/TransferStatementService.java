@@ -0,0 +1,127 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.soaresdev.picpaytestjr.repositories.TransferRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferHistoryDto;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Both directions are streamed through their own cursors and merged, so memory does not grow with the statement
+@Service
+public class TransferStatementService {
+    private static final Comparator<TransferHistoryDto> OLDEST_FIRST = Comparator.comparing(TransferHistoryDto::getCreatedAt).
+            thenComparing(TransferHistoryDto::getId);
+    private static final String CSV_HEADER = "uuid,payer_email,payee_email,value,created_at\n";
+
+    private final Logger logger = LoggerFactory.getLogger(TransferStatementService.class.getName());
+    private final TransferRepository transferRepository;
+    private final UserIdResolver userIdResolver;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ObjectWriter ndjsonWriter;
+    private final long exportTimeoutMillis;
+
+    public TransferStatementService(TransferRepository transferRepository, UserIdResolver userIdResolver,
+                                    PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                                    @Value("${transfer.statement.export-timeout-ms:1800000}") long exportTimeoutMillis) {
+        this.transferRepository = transferRepository;
+        this.userIdResolver = userIdResolver;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.ndjsonWriter = objectMapper.writerFor(TransferHistoryDto.class);
+        this.exportTimeoutMillis = exportTimeoutMillis;
+    }
+
+    // A streamed statement may take long on large histories, so exports get their own async request timeout
+    public long getExportTimeoutMillis() {
+        return exportTimeoutMillis;
+    }
+
+    // The user is resolved up front so a missing user is still answered with a 404 before the body starts
+    public StreamingResponseBody exportStatement(String email, StatementFormat format) {
+        UUID userId = userIdResolver.resolve(List.of(email)).get(email);
+        if(Objects.isNull(userId))
+            throw new EntityNotFoundException("User not found");
+
+        return outputStream -> {
+            logger.info("Exporting {} statement of {}...", format, email);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            Long rows = readOnlyTransactionTemplate.execute(status -> {
+                try(Stream<TransferHistoryDto> sent = transferRepository.streamSent(userId);
+                    Stream<TransferHistoryDto> received = transferRepository.streamReceived(userId)) {
+                    return writeStatement(writer, format, sent.iterator(), received.iterator());
+                } catch(IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            logger.info("Statement of {} exported with {} transfers", email, rows);
+        };
+    }
+
+    private long writeStatement(Writer writer, StatementFormat format, Iterator<TransferHistoryDto> sent,
+                                Iterator<TransferHistoryDto> received) throws IOException {
+        if(format == StatementFormat.CSV)
+            writer.write(CSV_HEADER);
+
+        long rows = 0;
+        TransferHistoryDto nextSent = next(sent);
+        TransferHistoryDto nextReceived = next(received);
+        while(Objects.nonNull(nextSent) || Objects.nonNull(nextReceived)) {
+            if(Objects.isNull(nextReceived) || (Objects.nonNull(nextSent) && OLDEST_FIRST.compare(nextSent, nextReceived) < 0)) {
+                writeRow(writer, format, nextSent);
+                nextSent = next(sent);
+            } else {
+                writeRow(writer, format, nextReceived);
+                nextReceived = next(received);
+            }
+            rows++;
+        }
+        return rows;
+    }
+
+    private void writeRow(Writer writer, StatementFormat format, TransferHistoryDto transfer) throws IOException {
+        if(format == StatementFormat.NDJSON) {
+            writer.write(ndjsonWriter.writeValueAsString(transfer));
+        } else {
+            writer.write(transfer.getUuid().toString());
+            writer.write(',');
+            writer.write(escapeCsv(transfer.getPayerEmail()));
+            writer.write(',');
+            writer.write(escapeCsv(transfer.getPayeeEmail()));
+            writer.write(',');
+            writer.write(transfer.getValue().toPlainString());
+            writer.write(',');
+            writer.write(transfer.getCreatedAt().toString());
+        }
+        writer.write('\n');
+    }
+
+    private static TransferHistoryDto next(Iterator<TransferHistoryDto> transfers) {
+        return transfers.hasNext() ? transfers.next() : null;
+    }
+
+    private static String escapeCsv(String value) {
+        if(value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0)
+            return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
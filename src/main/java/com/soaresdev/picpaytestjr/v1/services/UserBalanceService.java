@@ -0,0 +1,32 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.UserBalanceDto;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+@Service
+public class UserBalanceService {
+    private final Logger logger = LoggerFactory.getLogger(UserBalanceService.class.getName());
+    private final UserRepository userRepository;
+
+    public UserBalanceService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Cacheable(value = "user-balance", key = "#email", sync = true)
+    public UserBalanceDto findBalanceByEmail(String email) {
+        logger.info("Finding user balance by email: {}...", email);
+        return userRepository.findBalanceByEmail(email).
+                orElseThrow(() -> new EntityNotFoundException("User not found"));
+    }
+
+    @CachePut(value = "user-balance", key = "#result.email")
+    public UserBalanceDto putBalance(UserBalanceDto userBalanceDto) {
+        return userBalanceDto;
+    }
+}
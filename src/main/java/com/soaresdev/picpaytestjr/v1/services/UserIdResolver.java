@@ -0,0 +1,56 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.UserIdDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+// An id never changes for an email, it only goes stale when the user is deleted and the caller then evicts it
+@Service
+public class UserIdResolver {
+    private final UserRepository userRepository;
+    private final Cache<String, UUID> idsByEmail;
+
+    public UserIdResolver(UserRepository userRepository,
+                          @Value("${transfer.user-id-index.maximum-size:100000}") long maximumSize) {
+        this.userRepository = userRepository;
+        this.idsByEmail = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    public Map<String, UUID> resolve(Collection<String> emails) {
+        Map<String, UUID> ids = new HashMap<>();
+        Set<String> missingEmails = new HashSet<>();
+        for(String email : emails) {
+            UUID id = idsByEmail.getIfPresent(email);
+            if(Objects.isNull(id))
+                missingEmails.add(email);
+            else
+                ids.put(email, id);
+        }
+
+        if(!missingEmails.isEmpty()) {
+            for(UserIdDto userIdDto : userRepository.findIdsByEmailIn(missingEmails)) {
+                idsByEmail.put(userIdDto.getEmail(), userIdDto.getId());
+                ids.put(userIdDto.getEmail(), userIdDto.getId());
+            }
+        }
+        return ids;
+    }
+
+    public void register(String email, UUID id) {
+        idsByEmail.put(email, id);
+    }
+
+    public void evict(String email) {
+        idsByEmail.invalidate(email);
+    }
+}
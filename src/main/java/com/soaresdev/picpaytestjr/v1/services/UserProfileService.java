@@ -0,0 +1,33 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.UserProfileDto;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+@Service
+public class UserProfileService {
+    private final Logger logger = LoggerFactory.getLogger(UserProfileService.class.getName());
+    private final UserRepository userRepository;
+
+    public UserProfileService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    // Profiles never change after creation, so transfers do not evict them
+    @Cacheable(value = "user-profile", key = "#email", sync = true)
+    public UserProfileDto findProfileByEmail(String email) {
+        logger.info("Finding user profile by email: {}...", email);
+        return userRepository.findProfileByEmail(email).
+                orElseThrow(() -> new EntityNotFoundException("User not found"));
+    }
+
+    @CachePut(value = "user-profile", key = "#result.email")
+    public UserProfileDto putProfile(UserProfileDto userProfileDto) {
+        return userProfileDto;
+    }
+}
@@ -1,67 +1,125 @@
 package com.soaresdev.picpaytestjr.v1.services;
 
+import com.soaresdev.picpaytestjr.caches.CacheGeneration;
 import com.soaresdev.picpaytestjr.entities.User;
 import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.exceptions.InvalidPaginationException;
 import com.soaresdev.picpaytestjr.exceptions.InvalidUserTypeException;
 import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.utils.CursorUtils;
 import com.soaresdev.picpaytestjr.utils.RegexUtils;
+import com.soaresdev.picpaytestjr.v1.dtos.CursorPageDto;
+import com.soaresdev.picpaytestjr.v1.dtos.UserBalanceDto;
+import com.soaresdev.picpaytestjr.v1.dtos.UserCursorDto;
+import com.soaresdev.picpaytestjr.v1.dtos.UserProfileDto;
 import com.soaresdev.picpaytestjr.v1.dtos.UserRequestDto;
 import com.soaresdev.picpaytestjr.v1.dtos.UserResponseDto;
 import jakarta.persistence.EntityExistsException;
-import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
 
 @Service
 public class UserService {
     private final Logger logger = LoggerFactory.getLogger(UserService.class.getName());
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CacheGeneration usersCacheGeneration;
+    private final UserIdResolver userIdResolver;
+    private final UserProfileService userProfileService;
+    private final UserBalanceService userBalanceService;
+    private final LedgerService ledgerService;
+    private final int cursorMaxSize;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, CacheGeneration usersCacheGeneration,
+                       UserIdResolver userIdResolver, UserProfileService userProfileService, UserBalanceService userBalanceService,
+                       LedgerService ledgerService, @Value("${user.cursor.max-size:100}") int cursorMaxSize) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.usersCacheGeneration = usersCacheGeneration;
+        this.userIdResolver = userIdResolver;
+        this.userProfileService = userProfileService;
+        this.userBalanceService = userBalanceService;
+        this.ledgerService = ledgerService;
+        this.cursorMaxSize = cursorMaxSize;
     }
 
-    @Caching(put = {@CachePut(value = "user-cache", key = "#result.email")},
-            evict = {@CacheEvict(value = "users", allEntries = true)})
     public UserResponseDto createUser(UserRequestDto userRequestDto) {
         logger.info("Creating new user...");
         validateOnDatabase(userRequestDto);
 
         User user = convertRequestDtoToUser(userRequestDto);
-        UserResponseDto userResponseDto = new UserResponseDto(userRepository.save(user));
+        User savedUser = userRepository.save(user);
+        UserResponseDto userResponseDto = new UserResponseDto(savedUser);
+        userIdResolver.register(savedUser.getEmail(), savedUser.getId());
+        userProfileService.putProfile(new UserProfileDto(savedUser));
+        userBalanceService.putBalance(new UserBalanceDto(savedUser.getEmail(), savedUser.getBalance()));
+        usersCacheGeneration.increment();
         logger.info("User created successfully: {}", userResponseDto);
         return userResponseDto;
     }
 
     @Cacheable(
             value = "users",
-            key = "'page:' + #pageable.pageNumber + ':size:' + #pageable.pageSize + ':sort:' + #pageable.sort.toString()",
+            key = "'generation:' + @usersCacheGeneration.current() + ':page:' + #pageable.pageNumber + ':size:' + #pageable.pageSize + ':sort:' + #pageable.sort.toString()",
             sync = true
     )
     public Page<UserResponseDto> findAll(Pageable pageable) {
         logger.info("Finding all users...");
-        return userRepository.findAll(pageable).map(UserResponseDto::new);
+        return userRepository.findAllListing(pageable);
+    }
+
+    // Pages follow the listing order (fullName, id), which a transfer never changes, and never run a count query
+    @Cacheable(
+            value = "users",
+            key = "'generation:' + @usersCacheGeneration.current() + ':after:' + #after + ':size:' + #size",
+            sync = true
+    )
+    public CursorPageDto<UserResponseDto> findAllAfter(String after, int size) {
+        logger.info("Finding users after cursor {}...", after);
+        if(size < 1 || size > cursorMaxSize)
+            throw new InvalidPaginationException("Size must be between 1 and " + cursorMaxSize);
+
+        List<UserResponseDto> users;
+        if(Objects.isNull(after) || after.isBlank()) {
+            users = userRepository.findFirstInListingOrder(size + 1);
+        } else {
+            UserCursorDto cursor = CursorUtils.decodeUserCursor(after);
+            users = userRepository.findAfterInListingOrder(cursor.getFullName(), cursor.getId(), size + 1);
+        }
+
+        String nextCursor = null;
+        if(users.size() > size) {
+            users = List.copyOf(users.subList(0, size));
+            UserResponseDto last = users.get(size - 1);
+            nextCursor = CursorUtils.encode(new UserCursorDto(last.getFullName(), last.getId()));
+        }
+        return new CursorPageDto<>(users, size, nextCursor);
     }
 
-    @Cacheable(value = "user-cache", key = "#email")
     public UserResponseDto findUserByEmail(String email) {
         logger.info("Finding user by email: {}...", email);
-        UserResponseDto user = userRepository.findByEmail(email).map(UserResponseDto::new).
-                orElseThrow(() -> new EntityNotFoundException("User not found"));
+        UserResponseDto user = new UserResponseDto(userProfileService.findProfileByEmail(email),
+                userBalanceService.findBalanceByEmail(email).getBalance());
         logger.info("User found: {}", user);
         return user;
     }
 
+    // The current balance comes from the cache, a past one is rebuilt from the ledger
+    public UserBalanceDto findBalanceByEmail(String email, Instant at) {
+        if(Objects.isNull(at))
+            return userBalanceService.findBalanceByEmail(email);
+        return ledgerService.findBalanceAt(email, at);
+    }
+
     private void validateOnDatabase(UserRequestDto userRequestDto) {
         logger.info("Validating user request on database...");
         if(userRepository.existsByCpfCnpj(userRequestDto.getCpfCnpj().replaceAll("[./-]", "")))
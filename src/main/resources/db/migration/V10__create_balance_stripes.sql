@@ -0,0 +1,63 @@
+-- Hot payees can have their credits spread over balance_stripes sub-balance rows instead of their tb_user row,
+-- their balance is tb_user.balance plus every stripe until the consolidation folds the stripes back.
+ALTER TABLE tb_user ADD COLUMN IF NOT EXISTS balance_stripes INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS tb_user_balance_stripe (
+    user_id UUID NOT NULL,
+    stripe INTEGER NOT NULL,
+    balance DECIMAL(10, 2) NOT NULL DEFAULT 0,
+    CONSTRAINT pk_user_balance_stripe PRIMARY KEY (user_id, stripe),
+    CONSTRAINT fk_user_balance_stripe_user FOREIGN KEY (user_id) REFERENCES tb_user(id) ON DELETE CASCADE
+);
+
+-- A striped payee is not locked: the payer row is, and the credit only locks the stripe picked by the transfer uuid
+CREATE OR REPLACE FUNCTION fn_execute_transfer(p_payer_email VARCHAR, p_payee_email VARCHAR, p_amount NUMERIC, p_transfer_uuid UUID)
+RETURNS INTEGER AS $$
+DECLARE
+    v_user tb_user%ROWTYPE;
+    v_payer tb_user%ROWTYPE;
+    v_payee tb_user%ROWTYPE;
+BEGIN
+    SELECT * INTO v_payee FROM tb_user WHERE email = p_payee_email;
+    IF v_payee.balance_stripes > 0 AND p_payer_email <> p_payee_email THEN
+        SELECT * INTO v_payer FROM tb_user WHERE email = p_payer_email FOR UPDATE;
+    ELSE
+        -- Same lock order as the entity path (primary key), so both paths can run side by side without deadlocks
+        FOR v_user IN SELECT * FROM tb_user WHERE email IN (p_payer_email, p_payee_email) ORDER BY id FOR UPDATE LOOP
+            IF v_user.email = p_payer_email THEN
+                v_payer := v_user;
+            END IF;
+            IF v_user.email = p_payee_email THEN
+                v_payee := v_user;
+            END IF;
+        END LOOP;
+    END IF;
+
+    IF v_payer.id IS NULL OR v_payee.id IS NULL THEN
+        RETURN 1;
+    END IF;
+    IF v_payer.user_type_code = 2 THEN
+        RETURN 2;
+    END IF;
+    IF v_payer.balance - p_amount < 0 THEN
+        RETURN 3;
+    END IF;
+    IF v_payer.id = v_payee.id THEN
+        RETURN 4;
+    END IF;
+
+    UPDATE tb_user SET balance = balance - p_amount WHERE id = v_payer.id;
+    IF v_payee.balance_stripes > 0 THEN
+        INSERT INTO tb_user_balance_stripe (user_id, stripe, balance)
+        VALUES (v_payee.id, (hashtext(p_transfer_uuid::text) & 2147483647) % v_payee.balance_stripes, p_amount)
+        ON CONFLICT (user_id, stripe) DO UPDATE SET balance = tb_user_balance_stripe.balance + EXCLUDED.balance;
+    ELSE
+        UPDATE tb_user SET balance = balance + p_amount WHERE id = v_payee.id;
+    END IF;
+    INSERT INTO tb_transfer (uuid, payer_id, payee_id, value, created_at) VALUES (p_transfer_uuid, v_payer.id, v_payee.id, p_amount, now());
+    INSERT INTO tb_ledger_entry (user_id, transfer_uuid, entry_type_code, amount, created_at)
+    VALUES (v_payer.id, p_transfer_uuid, 2, -p_amount, now()), (v_payee.id, p_transfer_uuid, 3, p_amount, now());
+    INSERT INTO tb_notification_outbox (payee_id, value, next_attempt_at, created_at) VALUES (v_payee.id, p_amount, now(), now());
+    RETURN 0;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,3 @@
+-- Every path checks the available balance before debiting, the database enforces it too so that a writer working from
+-- a stale balance, such as the in-memory engine journal, fails instead of overdrafting
+ALTER TABLE tb_user ADD CONSTRAINT chk_user_balance_covers_holds CHECK (balance >= held_balance);
@@ -0,0 +1,4 @@
+-- Ledger rows are never deleted, so a user with ledger entries or snapshots can no longer be deleted,
+-- as already happens to users with transfers. The API has no user deletion, only tests delete users after truncating the ledger.
+COMMENT ON CONSTRAINT fk_ledger_entry_user ON tb_ledger_entry IS 'Keeps users with ledger entries from being deleted, the ledger is append-only';
+COMMENT ON CONSTRAINT fk_balance_snapshot_user ON tb_balance_snapshot IS 'Keeps users with balance snapshots from being deleted, snapshots are only folded forward';
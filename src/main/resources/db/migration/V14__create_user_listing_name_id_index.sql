@@ -0,0 +1,3 @@
+-- Cursor listings are keyed on (full_name, id) only, balance changes with every transfer and could move a row
+-- across the cursor between two pages. The (full_name, balance, id) index stays for the paged listing sort.
+CREATE INDEX IF NOT EXISTS idx_user_full_name_id ON tb_user(full_name, id) INCLUDE (user_type_code, cpf_cnpj, email);
@@ -0,0 +1,3 @@
+-- With balance in no index, the balance update of every transfer is a HOT update that writes no index entry.
+-- The paged listing sort on (full_name, balance) reads idx_user_full_name_id and only sorts rows sharing a full name.
+DROP INDEX IF EXISTS idx_user_full_name_balance_id;
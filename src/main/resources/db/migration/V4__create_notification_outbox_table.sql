@@ -0,0 +1,49 @@
+CREATE TABLE IF NOT EXISTS tb_notification_outbox (
+    id BIGINT PRIMARY KEY GENERATED ALWAYS AS IDENTITY,
+    payee_id UUID NOT NULL,
+    value DECIMAL(10, 2) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    failed_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_pending ON tb_notification_outbox(next_attempt_at) WHERE failed_at IS NULL;
+
+CREATE OR REPLACE FUNCTION fn_execute_transfer(p_payer_email VARCHAR, p_payee_email VARCHAR, p_amount NUMERIC)
+RETURNS INTEGER AS $$
+DECLARE
+    v_user tb_user%ROWTYPE;
+    v_payer tb_user%ROWTYPE;
+    v_payee tb_user%ROWTYPE;
+BEGIN
+    -- Same lock order as the entity path (primary key), so both paths can run side by side without deadlocks
+    FOR v_user IN SELECT * FROM tb_user WHERE email IN (p_payer_email, p_payee_email) ORDER BY id FOR UPDATE LOOP
+        IF v_user.email = p_payer_email THEN
+            v_payer := v_user;
+        END IF;
+        IF v_user.email = p_payee_email THEN
+            v_payee := v_user;
+        END IF;
+    END LOOP;
+
+    IF v_payer.id IS NULL OR v_payee.id IS NULL THEN
+        RETURN 1;
+    END IF;
+    IF v_payer.user_type_code = 2 THEN
+        RETURN 2;
+    END IF;
+    IF v_payer.balance - p_amount < 0 THEN
+        RETURN 3;
+    END IF;
+    IF v_payer.id = v_payee.id THEN
+        RETURN 4;
+    END IF;
+
+    UPDATE tb_user SET balance = balance - p_amount WHERE id = v_payer.id;
+    UPDATE tb_user SET balance = balance + p_amount WHERE id = v_payee.id;
+    INSERT INTO tb_transfer (payer_id, payee_id, value, created_at) VALUES (v_payer.id, v_payee.id, p_amount, now());
+    INSERT INTO tb_notification_outbox (payee_id, value, next_attempt_at, created_at) VALUES (v_payee.id, p_amount, now(), now());
+    RETURN 0;
+END;
+$$ LANGUAGE plpgsql;
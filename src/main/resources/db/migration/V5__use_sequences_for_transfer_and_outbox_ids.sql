@@ -0,0 +1,49 @@
+ALTER TABLE tb_transfer ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS tb_transfer_seq INCREMENT BY 50 OWNED BY tb_transfer.id;
+SELECT setval('tb_transfer_seq', (SELECT MAX(id) FROM tb_transfer)) WHERE EXISTS (SELECT 1 FROM tb_transfer);
+ALTER TABLE tb_transfer ALTER COLUMN id SET DEFAULT nextval('tb_transfer_seq');
+
+ALTER TABLE tb_notification_outbox ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS tb_notification_outbox_seq INCREMENT BY 50 OWNED BY tb_notification_outbox.id;
+SELECT setval('tb_notification_outbox_seq', (SELECT MAX(id) FROM tb_notification_outbox)) WHERE EXISTS (SELECT 1 FROM tb_notification_outbox);
+ALTER TABLE tb_notification_outbox ALTER COLUMN id SET DEFAULT nextval('tb_notification_outbox_seq');
+
+DROP FUNCTION IF EXISTS fn_execute_transfer(VARCHAR, VARCHAR, NUMERIC);
+
+CREATE OR REPLACE FUNCTION fn_execute_transfer(p_payer_email VARCHAR, p_payee_email VARCHAR, p_amount NUMERIC, p_transfer_uuid UUID)
+RETURNS INTEGER AS $$
+DECLARE
+    v_user tb_user%ROWTYPE;
+    v_payer tb_user%ROWTYPE;
+    v_payee tb_user%ROWTYPE;
+BEGIN
+    -- Same lock order as the entity path (primary key), so both paths can run side by side without deadlocks
+    FOR v_user IN SELECT * FROM tb_user WHERE email IN (p_payer_email, p_payee_email) ORDER BY id FOR UPDATE LOOP
+        IF v_user.email = p_payer_email THEN
+            v_payer := v_user;
+        END IF;
+        IF v_user.email = p_payee_email THEN
+            v_payee := v_user;
+        END IF;
+    END LOOP;
+
+    IF v_payer.id IS NULL OR v_payee.id IS NULL THEN
+        RETURN 1;
+    END IF;
+    IF v_payer.user_type_code = 2 THEN
+        RETURN 2;
+    END IF;
+    IF v_payer.balance - p_amount < 0 THEN
+        RETURN 3;
+    END IF;
+    IF v_payer.id = v_payee.id THEN
+        RETURN 4;
+    END IF;
+
+    UPDATE tb_user SET balance = balance - p_amount WHERE id = v_payer.id;
+    UPDATE tb_user SET balance = balance + p_amount WHERE id = v_payee.id;
+    INSERT INTO tb_transfer (uuid, payer_id, payee_id, value, created_at) VALUES (p_transfer_uuid, v_payer.id, v_payee.id, p_amount, now());
+    INSERT INTO tb_notification_outbox (payee_id, value, next_attempt_at, created_at) VALUES (v_payee.id, p_amount, now(), now());
+    RETURN 0;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,6 @@
+-- Matches the listing order (full_name, balance) plus id as tie-breaker, so keyset pages are read straight from the index.
+-- The other listed columns are included to allow index-only scans.
+CREATE INDEX IF NOT EXISTS idx_user_full_name_balance_id ON tb_user(full_name, balance, id) INCLUDE (user_type_code, cpf_cnpj, email);
+
+-- Covered by the index above
+DROP INDEX IF EXISTS idx_user_full_name;
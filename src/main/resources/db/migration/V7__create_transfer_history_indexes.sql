@@ -0,0 +1,4 @@
+-- Transfer history is read newest first per user and direction, with the id as tie-breaker,
+-- so keyset pages on (created_at, id) are read straight from these indexes. They also cover the foreign keys.
+CREATE INDEX IF NOT EXISTS idx_transfer_payer_id_created_at_id ON tb_transfer(payer_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_transfer_payee_id_created_at_id ON tb_transfer(payee_id, created_at, id);
@@ -0,0 +1,58 @@
+-- tb_transfer becomes a table partitioned by month on created_at, the primary key has to include the partition key.
+ALTER TABLE tb_transfer RENAME TO tb_transfer_unpartitioned;
+ALTER INDEX tb_transfer_pkey RENAME TO tb_transfer_unpartitioned_pkey;
+DROP INDEX IF EXISTS idx_transfer_payer_id_created_at_id;
+DROP INDEX IF EXISTS idx_transfer_payee_id_created_at_id;
+ALTER SEQUENCE tb_transfer_seq OWNED BY NONE;
+
+CREATE TABLE tb_transfer (
+    id BIGINT NOT NULL DEFAULT nextval('tb_transfer_seq'),
+    uuid UUID NOT NULL DEFAULT gen_random_uuid(),
+    payer_id UUID NOT NULL,
+    payee_id UUID NOT NULL,
+    value DECIMAL(10, 2) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT tb_transfer_pkey PRIMARY KEY (id, created_at),
+    CONSTRAINT fk_payer FOREIGN KEY (payer_id) REFERENCES tb_user(id),
+    CONSTRAINT fk_payee FOREIGN KEY (payee_id) REFERENCES tb_user(id)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX IF NOT EXISTS idx_transfer_payer_id_created_at_id ON tb_transfer(payer_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_transfer_payee_id_created_at_id ON tb_transfer(payee_id, created_at, id);
+
+-- Only catches rows outside every monthly partition so inserts never fail, partitions are created months ahead to keep it empty
+CREATE TABLE IF NOT EXISTS tb_transfer_default PARTITION OF tb_transfer DEFAULT;
+
+-- Partitions are named tb_transfer_pYYYYMM, the lock serializes partition changes made by several application nodes
+CREATE OR REPLACE FUNCTION fn_create_transfer_partition(p_month DATE)
+RETURNS BOOLEAN AS $$
+DECLARE
+    v_from DATE := date_trunc('month', p_month)::DATE;
+    v_name TEXT := 'tb_transfer_p' || to_char(v_from, 'YYYYMM');
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('tb_transfer_partitions'));
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I PARTITION OF tb_transfer FOR VALUES FROM (%L) TO (%L)',
+                   v_name, v_from, (v_from + INTERVAL '1 month')::DATE);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    v_month DATE := date_trunc('month', COALESCE((SELECT MIN(created_at) FROM tb_transfer_unpartitioned), now()))::DATE;
+BEGIN
+    WHILE v_month <= date_trunc('month', now() + INTERVAL '3 months')::DATE LOOP
+        PERFORM fn_create_transfer_partition(v_month);
+        v_month := (v_month + INTERVAL '1 month')::DATE;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO tb_transfer (id, uuid, payer_id, payee_id, value, created_at)
+SELECT id, uuid, payer_id, payee_id, value, created_at FROM tb_transfer_unpartitioned;
+
+DROP TABLE tb_transfer_unpartitioned;
+ALTER SEQUENCE tb_transfer_seq OWNED BY tb_transfer.id;
@@ -0,0 +1,95 @@
+-- Append-only ledger: every transfer writes a debit (negative amount) for the payer and a credit for the payee,
+-- user creation writes the opening balance. Balances at any time are a snapshot plus the entries after it.
+CREATE SEQUENCE IF NOT EXISTS tb_ledger_entry_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS tb_ledger_entry (
+    id BIGINT PRIMARY KEY DEFAULT nextval('tb_ledger_entry_seq'),
+    user_id UUID NOT NULL,
+    transfer_uuid UUID,
+    entry_type_code INTEGER NOT NULL,
+    amount DECIMAL(10, 2) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_ledger_entry_user FOREIGN KEY (user_id) REFERENCES tb_user(id)
+);
+
+ALTER SEQUENCE tb_ledger_entry_seq OWNED BY tb_ledger_entry.id;
+
+CREATE INDEX IF NOT EXISTS idx_ledger_entry_user_id_created_at ON tb_ledger_entry(user_id, created_at) INCLUDE (amount);
+CREATE INDEX IF NOT EXISTS idx_ledger_entry_created_at ON tb_ledger_entry(created_at);
+
+CREATE OR REPLACE FUNCTION fn_reject_ledger_entry_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    RAISE EXCEPTION 'tb_ledger_entry is append-only';
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_ledger_entry_append_only BEFORE UPDATE OR DELETE ON tb_ledger_entry
+    FOR EACH ROW EXECUTE FUNCTION fn_reject_ledger_entry_change();
+
+-- Balance of the user from every entry created before taken_until
+CREATE TABLE IF NOT EXISTS tb_balance_snapshot (
+    user_id UUID NOT NULL,
+    taken_until TIMESTAMP NOT NULL,
+    balance DECIMAL(12, 2) NOT NULL,
+    CONSTRAINT pk_balance_snapshot PRIMARY KEY (user_id, taken_until),
+    CONSTRAINT fk_balance_snapshot_user FOREIGN KEY (user_id) REFERENCES tb_user(id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_balance_snapshot_taken_until ON tb_balance_snapshot(taken_until);
+
+-- Opening balances are written with the user row itself, whatever inserts it
+CREATE OR REPLACE FUNCTION fn_write_opening_ledger_entry()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO tb_ledger_entry (user_id, entry_type_code, amount, created_at) VALUES (NEW.id, 1, NEW.balance, now());
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_user_opening_ledger_entry AFTER INSERT ON tb_user
+    FOR EACH ROW WHEN (NEW.balance <> 0) EXECUTE FUNCTION fn_write_opening_ledger_entry();
+
+-- Current balances of existing users open the ledger
+INSERT INTO tb_ledger_entry (user_id, entry_type_code, amount, created_at)
+SELECT id, 1, balance, now() FROM tb_user WHERE balance <> 0;
+
+CREATE OR REPLACE FUNCTION fn_execute_transfer(p_payer_email VARCHAR, p_payee_email VARCHAR, p_amount NUMERIC, p_transfer_uuid UUID)
+RETURNS INTEGER AS $$
+DECLARE
+    v_user tb_user%ROWTYPE;
+    v_payer tb_user%ROWTYPE;
+    v_payee tb_user%ROWTYPE;
+BEGIN
+    -- Same lock order as the entity path (primary key), so both paths can run side by side without deadlocks
+    FOR v_user IN SELECT * FROM tb_user WHERE email IN (p_payer_email, p_payee_email) ORDER BY id FOR UPDATE LOOP
+        IF v_user.email = p_payer_email THEN
+            v_payer := v_user;
+        END IF;
+        IF v_user.email = p_payee_email THEN
+            v_payee := v_user;
+        END IF;
+    END LOOP;
+
+    IF v_payer.id IS NULL OR v_payee.id IS NULL THEN
+        RETURN 1;
+    END IF;
+    IF v_payer.user_type_code = 2 THEN
+        RETURN 2;
+    END IF;
+    IF v_payer.balance - p_amount < 0 THEN
+        RETURN 3;
+    END IF;
+    IF v_payer.id = v_payee.id THEN
+        RETURN 4;
+    END IF;
+
+    UPDATE tb_user SET balance = balance - p_amount WHERE id = v_payer.id;
+    UPDATE tb_user SET balance = balance + p_amount WHERE id = v_payee.id;
+    INSERT INTO tb_transfer (uuid, payer_id, payee_id, value, created_at) VALUES (p_transfer_uuid, v_payer.id, v_payee.id, p_amount, now());
+    INSERT INTO tb_ledger_entry (user_id, transfer_uuid, entry_type_code, amount, created_at)
+    VALUES (v_payer.id, p_transfer_uuid, 2, -p_amount, now()), (v_payee.id, p_transfer_uuid, 3, p_amount, now());
+    INSERT INTO tb_notification_outbox (payee_id, value, next_attempt_at, created_at) VALUES (v_payee.id, p_amount, now(), now());
+    RETURN 0;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,91 @@
+package com.soaresdev.picpaytestjr.caches;
+
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.v1.dtos.UserResponseDto;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.soaresdev.picpaytestjr.caches.CacheValueSerializerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheValueSerializerBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(CacheValueSerializerBenchmark.class.getName());
+
+    @Param({"user", "page"})
+    private String value;
+
+    private final RedisSerializer<Object> javaSerializer = RedisSerializer.java();
+    private final CompactValueSerializer compactSerializer = new CompactValueSerializer(CacheValueFormat.COMPACT, 1024);
+    private Object cachedValue;
+    private byte[] javaBytes;
+    private byte[] compactBytes;
+
+    @Setup
+    public void setup() {
+        cachedValue = value.equals("user") ? user(0) : page(50);
+        javaBytes = javaSerializer.serialize(cachedValue);
+        compactBytes = compactSerializer.serialize(cachedValue);
+    }
+
+    @Benchmark
+    public byte[] javaSerialize() {
+        return javaSerializer.serialize(cachedValue);
+    }
+
+    @Benchmark
+    public Object javaDeserialize() {
+        return javaSerializer.deserialize(javaBytes);
+    }
+
+    @Benchmark
+    public byte[] compactSerialize() {
+        return compactSerializer.serialize(cachedValue);
+    }
+
+    @Benchmark
+    public Object compactDeserialize() {
+        return compactSerializer.deserialize(compactBytes);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        RedisSerializer<Object> javaSerializer = RedisSerializer.java();
+        CompactValueSerializer compactSerializer = new CompactValueSerializer(CacheValueFormat.COMPACT, 1024);
+        for(Object cachedValue : List.of(user(0), page(10), page(50))) {
+            logger.info("{}: java {} bytes, compact {} bytes", cachedValue.getClass().getSimpleName(),
+                    javaSerializer.serialize(cachedValue).length, compactSerializer.serialize(cachedValue).length);
+        }
+        new Runner(new OptionsBuilder().include(CacheValueSerializerBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static UserResponseDto user(int index) {
+        return new UserResponseDto(BigDecimal.valueOf(1_000_00L + index, 2), "4777662991" + index % 10,
+                "user" + index + "@testing.com", "User Number " + index, UUID.randomUUID(), UserType.CUSTOMER);
+    }
+
+    private static PageImpl<UserResponseDto> page(int size) {
+        List<UserResponseDto> users = new ArrayList<>();
+        for(int i = 0; i < size; i++)
+            users.add(user(i));
+        return new PageImpl<>(users, PageRequest.of(0, size, Sort.by("fullName", "balance")), 1_000);
+    }
+}
@@ -0,0 +1,206 @@
+package com.soaresdev.picpaytestjr.clients;
+
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.soaresdev.picpaytestjr.exceptions.ExternalApiUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalApiClientTest {
+    private static final String PATH = "/api/v2/authorize";
+    private static final String ENDPOINT = "authorize";
+
+    @RegisterExtension
+    static WireMockExtension WIREMOCK_SERVER = WireMockExtension.newInstance().
+            options(wireMockConfig().dynamicPort()).build();
+
+    private MockEnvironment environment;
+    private ExternalApiClientFactory apiClientFactory;
+
+    @BeforeEach
+    void setup() {
+        environment = new MockEnvironment().
+                withProperty("external.api.authorize.response-timeout-ms", "2000").
+                withProperty("external.api.authorize.bulkhead.max-concurrent-calls", "8").
+                withProperty("external.api.authorize.bulkhead.max-wait-ms", "0").
+                withProperty("external.api.authorize.circuit-breaker.window-size", "10").
+                withProperty("external.api.authorize.circuit-breaker.minimum-calls", "5").
+                withProperty("external.api.authorize.circuit-breaker.failure-rate-threshold", "50").
+                withProperty("external.api.authorize.circuit-breaker.open-ms", "300").
+                withProperty("external.api.authorize.adaptive-timeout.min-ms", "100").
+                withProperty("external.api.authorize.adaptive-timeout.multiplier", "3.0");
+        apiClientFactory = new ExternalApiClientFactory(environment, RestClient.builder(), 10, 10, 1_000, 30_000, 300_000);
+    }
+
+    @AfterEach
+    void shutdown() throws IOException {
+        apiClientFactory.shutdown();
+    }
+
+    @Test
+    void shouldTimeOutASlowResponseAtTheResponseTimeout() {
+        environment.setProperty("external.api.authorize.response-timeout-ms", "200");
+        ExternalApiClient apiClient = createClient();
+        WIREMOCK_SERVER.stubFor(get(urlEqualTo(PATH)).willReturn(aResponse().withStatus(HttpStatus.OK.value()).withFixedDelay(1_000)));
+
+        long startedAt = System.nanoTime();
+        assertThrows(ResourceAccessException.class, () -> call(apiClient));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        assertTrue(elapsedMillis < 800, "Timed out after " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void shouldOpenTheCircuitOnFaultsAndFailFast() {
+        ExternalApiClient apiClient = createClient();
+        WIREMOCK_SERVER.stubFor(get(urlEqualTo(PATH)).willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+
+        for(int i = 0; i < 5; i++)
+            assertThrows(ResourceAccessException.class, () -> call(apiClient));
+        ExternalApiUnavailableException e = assertThrows(ExternalApiUnavailableException.class, () -> call(apiClient));
+
+        assertEquals("The authorize API is unavailable", e.getMessage());
+        assertEquals(CircuitBreaker.State.OPEN, apiClient.getCircuitState());
+        WIREMOCK_SERVER.verify(5, getRequestedFor(urlEqualTo(PATH)));
+    }
+
+    @Test
+    void shouldCloseTheCircuitOnceTheProbeSucceeds() throws InterruptedException {
+        ExternalApiClient apiClient = createClient();
+        WIREMOCK_SERVER.stubFor(get(urlEqualTo(PATH)).willReturn(aResponse().withStatus(HttpStatus.SERVICE_UNAVAILABLE.value())));
+        for(int i = 0; i < 5; i++)
+            assertThrows(HttpServerErrorException.class, () -> call(apiClient));
+        assertEquals(CircuitBreaker.State.OPEN, apiClient.getCircuitState());
+
+        WIREMOCK_SERVER.stubFor(get(urlEqualTo(PATH)).willReturn(aResponse().withStatus(HttpStatus.OK.value())));
+        Thread.sleep(400);
+
+        assertEquals(HttpStatus.OK.value(), call(apiClient));
+        assertEquals(CircuitBreaker.State.CLOSED, apiClient.getCircuitState());
+    }
+
+    @Test
+    void shouldNotCountClientErrorsAsFailures() {
+        ExternalApiClient apiClient = createClient();
+        WIREMOCK_SERVER.stubFor(get(urlEqualTo(PATH)).willReturn(aResponse().withStatus(HttpStatus.FORBIDDEN.value())));
+
+        for(int i = 0; i < 10; i++)
+            assertThrows(RuntimeException.class, () -> call(apiClient));
+
+        assertEquals(CircuitBreaker.State.CLOSED, apiClient.getCircuitState());
+    }
+
+    @Test
+    void shouldRejectCallsBeyondTheBulkhead() throws InterruptedException {
+        environment.setProperty("external.api.authorize.bulkhead.max-concurrent-calls", "2");
+        ExternalApiClient apiClient = createClient();
+        WIREMOCK_SERVER.stubFor(get(urlEqualTo(PATH)).willReturn(aResponse().withStatus(HttpStatus.OK.value()).withFixedDelay(500)));
+
+        List<CompletableFuture<Integer>> calls = new ArrayList<>();
+        for(int i = 0; i < 3; i++) {
+            calls.add(CompletableFuture.supplyAsync(() -> call(apiClient)));
+            Thread.sleep(50);
+        }
+
+        long rejected = calls.stream().filter(call -> {
+            try {
+                call.get(5, TimeUnit.SECONDS);
+                return false;
+            } catch(ExecutionException e) {
+                return e.getCause() instanceof ExternalApiUnavailableException;
+            } catch(Exception e) {
+                return false;
+            }
+        }).count();
+        assertEquals(1, rejected);
+        WIREMOCK_SERVER.verify(2, getRequestedFor(urlEqualTo(PATH)));
+    }
+
+    @Test
+    void shouldAdaptTheTimeoutToTheObservedP99() {
+        ExternalApiClient apiClient = createClient();
+        WIREMOCK_SERVER.stubFor(get(urlEqualTo(PATH)).willReturn(aResponse().withStatus(HttpStatus.OK.value()).withFixedDelay(20)));
+        assertEquals(2_000, apiClient.getCurrentTimeoutMillis());
+
+        for(int i = 0; i < 100; i++)
+            call(apiClient);
+        long adaptedTimeoutMillis = apiClient.getCurrentTimeoutMillis();
+        WIREMOCK_SERVER.stubFor(get(urlEqualTo(PATH)).willReturn(aResponse().withStatus(HttpStatus.OK.value()).withFixedDelay(1_500)));
+
+        long startedAt = System.nanoTime();
+        assertThrows(ResourceAccessException.class, () -> call(apiClient));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        assertTrue(adaptedTimeoutMillis >= 100 && adaptedTimeoutMillis < 2_000, "Adapted timeout " + adaptedTimeoutMillis + " ms");
+        assertTrue(elapsedMillis < 1_000, "Timed out after " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void shouldRecoverWhenTheEndpointSlowsDownBeyondTheAdaptedTimeout() throws InterruptedException {
+        ExternalApiClient apiClient = createClient();
+        WIREMOCK_SERVER.stubFor(get(urlEqualTo(PATH)).willReturn(aResponse().withStatus(HttpStatus.OK.value()).withFixedDelay(20)));
+        for(int i = 0; i < 100; i++)
+            call(apiClient);
+        WIREMOCK_SERVER.stubFor(get(urlEqualTo(PATH)).willReturn(aResponse().withStatus(HttpStatus.OK.value()).withFixedDelay(500)));
+
+        boolean answered = false;
+        for(int i = 0; i < 20 && !answered; i++) {
+            try {
+                answered = call(apiClient) == HttpStatus.OK.value();
+            } catch(ExternalApiUnavailableException e) {
+                Thread.sleep(400);
+            } catch(ResourceAccessException e) {
+                // Timed out on the adapted timeout
+            }
+        }
+
+        assertTrue(answered, "The endpoint was never called with a timeout above its latency");
+    }
+
+    @Test
+    void shouldHedgeASlowIdempotentCall() {
+        environment.setProperty("external.api.authorize.hedging.enabled", "true");
+        environment.setProperty("external.api.authorize.hedging.min-delay-ms", "100");
+        ExternalApiClient apiClient = createClient();
+        WIREMOCK_SERVER.stubFor(get(urlEqualTo(PATH)).inScenario("hedging").
+                whenScenarioStateIs(Scenario.STARTED).willSetStateTo("hedged").
+                willReturn(aResponse().withStatus(HttpStatus.OK.value()).withFixedDelay(1_500)));
+        WIREMOCK_SERVER.stubFor(get(urlEqualTo(PATH)).inScenario("hedging").
+                whenScenarioStateIs("hedged").
+                willReturn(aResponse().withStatus(HttpStatus.OK.value())));
+
+        long startedAt = System.nanoTime();
+        int status = apiClient.executeHedged(restClient -> restClient.get().retrieve().toBodilessEntity().getStatusCode().value());
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        assertEquals(HttpStatus.OK.value(), status);
+        assertTrue(elapsedMillis < 1_000, "Hedged call took " + elapsedMillis + " ms");
+        WIREMOCK_SERVER.verify(2, getRequestedFor(urlEqualTo(PATH)));
+    }
+
+    private ExternalApiClient createClient() {
+        return apiClientFactory.create(ENDPOINT, WIREMOCK_SERVER.baseUrl() + PATH);
+    }
+
+    private int call(ExternalApiClient apiClient) {
+        return apiClient.execute(restClient -> restClient.get().retrieve().toBodilessEntity().getStatusCode().value());
+    }
+}
@@ -0,0 +1,65 @@
+package com.soaresdev.picpaytestjr.engine;
+
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.soaresdev.picpaytestjr.engine.TransferEngineBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class TransferEngineBenchmark {
+    private static final int ACCOUNTS = 1_024;
+    private static final int BURST = 64;
+
+    @Param({"1", "2", "4", "8"})
+    private int partitions;
+
+    private final UUID[] accounts = new UUID[ACCOUNTS];
+    private TransferEngine engine;
+
+    @Setup
+    public void setup() {
+        for(int i = 0; i < ACCOUNTS; i++)
+            accounts[i] = UUID.randomUUID();
+        engine = new TransferEngine(partitions, 500, Duration.ofSeconds(10),
+                userId -> new EngineAccount(UserType.CUSTOMER.getCode(), BigDecimal.valueOf(1_000_000_000L)),
+                transfers -> {});
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        CompletableFuture<?>[] results = new CompletableFuture<?>[BURST];
+        for(int i = 0; i < BURST; i++) {
+            results[i] = engine.submit(accounts[random.nextInt(ACCOUNTS)], accounts[random.nextInt(ACCOUNTS)],
+                    BigDecimal.ONE).persisted();
+        }
+        CompletableFuture.allOf(results).join();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TransferEngineBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -35,6 +36,8 @@ abstract class AbstractIntegrationTest {
     protected ObjectMapper objectMapper;
     @Autowired
     protected CacheManager cacheManager;
+    @Autowired
+    private JdbcTemplate ledgerJdbcTemplate;
 
     @BeforeEach
     void setUp() {
@@ -66,6 +69,11 @@ abstract class AbstractIntegrationTest {
         registry.add("spring.data.redis.port", () -> REDIS_CONTAINER.getMappedPort(6379));
     }
 
+    // The ledger is append-only and references users, so tests truncate it before deleting users
+    protected void cleanLedger() {
+        ledgerJdbcTemplate.execute("TRUNCATE tb_ledger_entry, tb_balance_snapshot");
+    }
+
     protected void cleanAllCaches() {
         for (String name : cacheManager.getCacheNames()) {
             Cache cache = cacheManager.getCache(name);
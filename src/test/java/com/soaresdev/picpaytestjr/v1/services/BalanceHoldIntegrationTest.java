@@ -0,0 +1,169 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.soaresdev.picpaytestjr.entities.User;
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.exceptions.TransferException;
+import com.soaresdev.picpaytestjr.repositories.BalanceHoldRepository;
+import com.soaresdev.picpaytestjr.repositories.NotificationOutboxRepository;
+import com.soaresdev.picpaytestjr.repositories.TransferRepository;
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferDto;
+import com.soaresdev.picpaytestjr.v1.dtos.externalApisDto.authorize.AuthorizeDto;
+import com.soaresdev.picpaytestjr.v1.dtos.externalApisDto.authorize.DataDto;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = {"transfer.execution-mode=HOLD", "transfer.hold.sweeper.enabled=false"})
+class BalanceHoldIntegrationTest extends AbstractIntegrationTest {
+    private static final String PAYER_EMAIL = "johndoe@testing.com";
+    private static final String PAYEE_EMAIL = "marydoe@testing.com";
+    private static final int AUTHORIZER_DELAY_MILLIS = 1_000;
+
+    @Autowired
+    private TransferService transferService;
+    @Autowired
+    private TransferExecutionService transferExecutionService;
+    @Autowired
+    private BalanceHoldService balanceHoldService;
+    @Autowired
+    private UserIdResolver userIdResolver;
+    @Autowired
+    private BalanceHoldRepository balanceHoldRepository;
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
+    @Autowired
+    private TransferRepository transferRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        WIREMOCK_SERVER.resetAll();
+        balanceHoldRepository.deleteAll();
+        notificationOutboxRepository.deleteAll();
+        transferRepository.deleteAll();
+        cleanLedger();
+        userRepository.deleteAll();
+        List.of(PAYER_EMAIL, PAYEE_EMAIL).forEach(userIdResolver::evict);
+        userRepository.save(new User(UserType.CUSTOMER.getCode(), "the-strongest-password123", "John Doe", PAYER_EMAIL, "47776629911", BigDecimal.TEN));
+        userRepository.save(new User(UserType.SELLER.getCode(), "the-strongest-password12345", "Mary Doe", PAYEE_EMAIL, "79610519000141", BigDecimal.ONE));
+        WIREMOCK_SERVER.stubFor(post(urlEqualTo("/api/v1/notify")).
+                willReturn(aResponse().withStatus(HttpStatus.OK.value())));
+    }
+
+    @Test
+    void shouldCaptureTheHoldOnceAuthorized() throws JsonProcessingException {
+        stubAuthorizer(Boolean.TRUE, 0);
+
+        transferService.transfer(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.valueOf(4)));
+
+        User payer = findUser(PAYER_EMAIL);
+        assertEquals(0, payer.getBalance().compareTo(BigDecimal.valueOf(6)));
+        assertEquals(0, payer.getHeldBalance().compareTo(BigDecimal.ZERO));
+        assertEquals(0, findUser(PAYEE_EMAIL).getBalance().compareTo(BigDecimal.valueOf(5)));
+        assertEquals(0, balanceHoldRepository.count());
+        assertEquals(1, transferRepository.count());
+    }
+
+    @Test
+    void shouldReleaseTheHoldWhenNotAuthorized() throws JsonProcessingException {
+        stubAuthorizer(Boolean.FALSE, 0);
+
+        TransferException e = assertThrows(TransferException.class, () ->
+                transferService.transfer(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.valueOf(4))));
+
+        User payer = findUser(PAYER_EMAIL);
+        assertEquals("Transfer not authorized", e.getMessage());
+        assertEquals(0, payer.getBalance().compareTo(BigDecimal.TEN));
+        assertEquals(0, payer.getHeldBalance().compareTo(BigDecimal.ZERO));
+        assertEquals(0, balanceHoldRepository.count());
+        assertEquals(0, transferRepository.count());
+    }
+
+    @Test
+    void shouldRejectOtherTransfersOfThePayerWithoutWaitingForTheAuthorizer() throws Exception {
+        stubAuthorizer(Boolean.TRUE, AUTHORIZER_DELAY_MILLIS);
+        CompletableFuture<Void> slowTransfer = CompletableFuture.runAsync(() ->
+                transferService.transfer(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.valueOf(8))));
+        while(balanceHoldRepository.count() == 0)
+            Thread.sleep(5);
+
+        long startedAt = System.nanoTime();
+        TransferException e = assertThrows(TransferException.class, () ->
+                transferExecutionService.placeHold(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.valueOf(5))));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        slowTransfer.get(10, TimeUnit.SECONDS);
+        assertEquals("You do not have enough money to transfer", e.getMessage());
+        assertTrue(elapsedMillis < AUTHORIZER_DELAY_MILLIS / 2, "Second hold took " + elapsedMillis + " ms");
+        assertEquals(0, findUser(PAYER_EMAIL).getBalance().compareTo(BigDecimal.valueOf(2)));
+    }
+
+    @Test
+    void shouldSweepExpiredHoldsAndRefuseToCaptureThem() {
+        UUID holdId = transferExecutionService.placeHold(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.valueOf(3)));
+        transferExecutionService.placeHold(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.valueOf(2)));
+        assertEquals(0, findUser(PAYER_EMAIL).getHeldBalance().compareTo(BigDecimal.valueOf(5)));
+        jdbcTemplate.update("UPDATE tb_balance_hold SET expires_at = created_at - INTERVAL '1 second'");
+
+        assertEquals(2, balanceHoldService.releaseExpired(Instant.now(), 1) + balanceHoldService.releaseExpired(Instant.now(), 1));
+        TransferException e = assertThrows(TransferException.class, () -> transferExecutionService.captureHold(holdId));
+
+        User payer = findUser(PAYER_EMAIL);
+        assertEquals("Transfer hold expired", e.getMessage());
+        assertEquals(0, payer.getBalance().compareTo(BigDecimal.TEN));
+        assertEquals(0, payer.getHeldBalance().compareTo(BigDecimal.ZERO));
+        assertEquals(0, balanceHoldRepository.count());
+    }
+
+    @Test
+    void shouldReleaseAHoldThatExpiredBeforeItWasSwept() throws Exception {
+        stubAuthorizer(Boolean.TRUE, AUTHORIZER_DELAY_MILLIS);
+        CompletableFuture<Void> transfer = CompletableFuture.runAsync(() ->
+                transferService.transfer(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.valueOf(4))));
+        while(balanceHoldRepository.count() == 0)
+            Thread.sleep(5);
+        jdbcTemplate.update("UPDATE tb_balance_hold SET expires_at = created_at - INTERVAL '1 second'");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> transfer.get(10, TimeUnit.SECONDS));
+
+        User payer = findUser(PAYER_EMAIL);
+        assertEquals("Transfer hold expired", e.getCause().getMessage());
+        assertEquals(0, payer.getBalance().compareTo(BigDecimal.TEN));
+        assertEquals(0, payer.getHeldBalance().compareTo(BigDecimal.ZERO));
+        assertEquals(0, balanceHoldRepository.count());
+        assertEquals(0, transferRepository.count());
+    }
+
+    private void stubAuthorizer(Boolean authorization, int delayMillis) throws JsonProcessingException {
+        WIREMOCK_SERVER.stubFor(get(urlEqualTo("/api/v2/authorize")).
+                willReturn(aResponse().withStatus(HttpStatus.OK.value()).
+                        withFixedDelay(delayMillis).
+                        withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE).
+                        withBody(objectMapper.writeValueAsString(new AuthorizeDto("success", new DataDto(authorization))))));
+    }
+
+    private User findUser(String email) {
+        return userRepository.findByEmail(email).orElseThrow(EntityNotFoundException::new);
+    }
+}
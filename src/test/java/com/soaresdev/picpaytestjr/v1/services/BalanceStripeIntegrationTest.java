@@ -0,0 +1,168 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.entities.User;
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.repositories.NotificationOutboxRepository;
+import com.soaresdev.picpaytestjr.repositories.TransferRepository;
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferDto;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = "transfer.balance-stripes.consolidator.enabled=false")
+class BalanceStripeIntegrationTest extends AbstractIntegrationTest {
+    private static final Logger logger = LoggerFactory.getLogger(BalanceStripeIntegrationTest.class.getName());
+    private static final String SELLER_EMAIL = "seller@testing.com";
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(100_000);
+    private static final int PAYERS = 32;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS = 1_000;
+
+    @Autowired
+    private TransferExecutionService transferExecutionService;
+    @Autowired
+    private BalanceStripeService balanceStripeService;
+    @Autowired
+    private UserIdResolver userIdResolver;
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
+    @Autowired
+    private TransferRepository transferRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<String> payerEmails = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        notificationOutboxRepository.deleteAll();
+        transferRepository.deleteAll();
+        cleanLedger();
+        userRepository.deleteAll();
+        payerEmails.clear();
+        for(int i = 0; i < PAYERS; i++) {
+            String email = "customer" + i + "@testing.com";
+            userIdResolver.evict(email);
+            payerEmails.add(email);
+            userRepository.save(new User(UserType.CUSTOMER.getCode(), "the-strongest-password123",
+                    "Customer " + i, email, String.format("%011d", i), INITIAL_BALANCE));
+        }
+        userIdResolver.evict(SELLER_EMAIL);
+        userRepository.save(new User(UserType.SELLER.getCode(), "the-strongest-password12345", "Mary Doe", SELLER_EMAIL, "79610519000141", BigDecimal.ZERO));
+
+        WIREMOCK_SERVER.stubFor(post(urlEqualTo("/api/v1/notify")).
+                willReturn(aResponse().withStatus(HttpStatus.OK.value())));
+    }
+
+    @Test
+    void shouldCompareCreditThroughputIntoOneSellerByStripeCount() throws Exception {
+        int totalTransfers = 0;
+        for(int stripes : List.of(0, 1, 4, 16)) {
+            balanceStripeService.setStripes(SELLER_EMAIL, stripes);
+            run(stripes, TRANSFERS);
+            totalTransfers += TRANSFERS;
+        }
+
+        assertEquals(totalTransfers, transferRepository.count());
+        assertEquals(0, sellerBalance().compareTo(BigDecimal.valueOf(totalTransfers)));
+        assertTrue(stripedAmount().signum() > 0);
+
+        balanceStripeService.consolidate();
+
+        assertEquals(0, stripedAmount().signum());
+        assertEquals(0, sellerBalance().compareTo(BigDecimal.valueOf(totalTransfers)));
+        assertEquals(0, userRepository.findByEmail(SELLER_EMAIL).orElseThrow(EntityNotFoundException::new).
+                getBalance().compareTo(BigDecimal.valueOf(totalTransfers)));
+    }
+
+    @Test
+    void shouldCreditStripesOnTheSingleStatementPathAndCombineThemOnReads() {
+        balanceStripeService.setStripes(SELLER_EMAIL, 4);
+        for(int i = 0; i < 20; i++)
+            transferExecutionService.executeWithSingleStatement(new TransferDto(payerEmails.get(i % PAYERS), SELLER_EMAIL, BigDecimal.ONE));
+
+        assertEquals(0, userRepository.findByEmail(SELLER_EMAIL).orElseThrow(EntityNotFoundException::new).
+                getBalance().compareTo(BigDecimal.ZERO));
+        assertEquals(0, stripedAmount().compareTo(BigDecimal.valueOf(20)));
+        given().
+        when().
+                get("/v1/user/" + SELLER_EMAIL + "/balance").
+        then().
+                statusCode(HttpStatus.OK.value()).
+                body("balance", equalTo(20.0f));
+    }
+
+    @Test
+    void shouldCreditStripesOnTheBatchPathAndListTheCombinedBalance() {
+        balanceStripeService.setStripes(SELLER_EMAIL, 4);
+        List<TransferDto> transferDtos = new ArrayList<>();
+        for(int i = 0; i < 20; i++)
+            transferDtos.add(new TransferDto(payerEmails.get(i % PAYERS), SELLER_EMAIL, BigDecimal.ONE));
+
+        transferExecutionService.executeBatch(transferDtos);
+
+        assertEquals(0, userRepository.findByEmail(SELLER_EMAIL).orElseThrow(EntityNotFoundException::new).
+                getBalance().compareTo(BigDecimal.ZERO));
+        assertEquals(0, stripedAmount().compareTo(BigDecimal.valueOf(20)));
+        assertEquals(0, userRepository.findFirstInListingOrder(PAYERS + 1).stream().
+                filter(user -> user.getEmail().equals(SELLER_EMAIL)).findFirst().orElseThrow(EntityNotFoundException::new).
+                getBalance().compareTo(BigDecimal.valueOf(20)));
+    }
+
+    @Test
+    void shouldReturn400WhenStripingACustomer() {
+        given().
+                queryParam("count", 4).
+        when().
+                put("/v1/user/" + payerEmails.get(0) + "/balance-stripes").
+        then().
+                statusCode(HttpStatus.BAD_REQUEST.value()).
+                body("message", equalTo("Only sellers can have a striped balance"));
+    }
+
+    private void run(int stripes, int transfers) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        long startedAt = System.nanoTime();
+        for(int i = 0; i < transfers; i++) {
+            futures.add(executor.submit(() -> transferExecutionService.executeWithEntityLocking(new TransferDto(
+                    payerEmails.get(ThreadLocalRandom.current().nextInt(PAYERS)), SELLER_EMAIL, BigDecimal.ONE))));
+        }
+        for(Future<?> future : futures)
+            future.get(2, TimeUnit.MINUTES);
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+        logger.info("Stripe benchmark [{} stripes]: {} credits into one seller on {} threads, {} transfers/s",
+                stripes, transfers, THREADS, String.format("%.1f", transfers / (elapsedNanos / 1_000_000_000.0)));
+    }
+
+    private BigDecimal sellerBalance() {
+        return userRepository.findBalanceByEmail(SELLER_EMAIL).orElseThrow(EntityNotFoundException::new).getBalance();
+    }
+
+    private BigDecimal stripedAmount() {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(balance), 0) FROM tb_user_balance_stripe", BigDecimal.class);
+    }
+}
@@ -0,0 +1,118 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.caches.CompactValueSerializer;
+import com.soaresdev.picpaytestjr.caches.TwoLevelCache;
+import com.soaresdev.picpaytestjr.entities.User;
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.UserBalanceDto;
+import com.soaresdev.picpaytestjr.v1.dtos.UserProfileDto;
+import com.soaresdev.picpaytestjr.v1.dtos.UserResponseDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheSerializationIntegrationTest extends AbstractIntegrationTest {
+    private static final String USER_EMAIL = "johndoe@testing.com";
+    private static final String PROFILE_CACHE_KEY = "user-profile::" + USER_EMAIL;
+    private static final String BALANCE_CACHE_KEY = "user-balance::" + USER_EMAIL;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    @Autowired
+    private CompactValueSerializer cacheValueSerializer;
+
+    @BeforeEach
+    void setup() {
+        cleanLedger();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void shouldReadEntriesWrittenWithJavaSerialization() {
+        UserProfileDto legacyProfile = new UserProfileDto("47776629911", USER_EMAIL, "John Doe", UUID.randomUUID(), UserType.CUSTOMER);
+        setRaw(PROFILE_CACHE_KEY, RedisSerializer.java().serialize(legacyProfile));
+        setRaw(BALANCE_CACHE_KEY, RedisSerializer.java().serialize(new UserBalanceDto(USER_EMAIL, BigDecimal.TEN)));
+
+        UserResponseDto user = userService.findUserByEmail(USER_EMAIL);
+
+        assertEquals(legacyProfile.getId(), user.getId());
+        assertEquals(legacyProfile.getCpfCnpj(), user.getCpfCnpj());
+        assertEquals(0, user.getBalance().compareTo(BigDecimal.TEN));
+    }
+
+    @Test
+    void shouldWriteCompactEntriesSmallerThanJavaSerialization() {
+        saveUser();
+
+        userService.findUserByEmail(USER_EMAIL);
+        UserProfileDto profile = getCache("user-profile").get(USER_EMAIL, UserProfileDto.class);
+        getCache("user-profile").clearLocal();
+        byte[] rawValue = getRaw(PROFILE_CACHE_KEY);
+
+        assertNotNull(rawValue);
+        assertEquals((byte) 0xC5, rawValue[0]);
+        assertTrue(rawValue.length < RedisSerializer.java().serialize(profile).length);
+        assertEquals(profile, getCache("user-profile").get(USER_EMAIL, UserProfileDto.class));
+        assertEquals((byte) 0xC5, Objects.requireNonNull(getRaw(BALANCE_CACHE_KEY))[0]);
+    }
+
+    @Test
+    void shouldRoundTripCachedPages() {
+        saveUser();
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("fullName").ascending().and(Sort.by("balance").descending()));
+
+        Page<UserResponseDto> page = userService.findAll(pageRequest);
+        getCache("users").clearLocal();
+        Page<?> cachedPage = (Page<?>) cacheValueSerializer.deserialize(cacheValueSerializer.serialize(page));
+
+        assertEquals(page.getContent(), cachedPage.getContent());
+        assertEquals(page.getPageable(), cachedPage.getPageable());
+        assertEquals(page.getTotalElements(), cachedPage.getTotalElements());
+        assertEquals(page.getContent(), userService.findAll(pageRequest).getContent());
+    }
+
+    @Test
+    void shouldTreatUnreadableEntriesAsMisses() {
+        saveUser();
+        setRaw(PROFILE_CACHE_KEY, "not a cached value".getBytes(StandardCharsets.UTF_8));
+
+        UserResponseDto user = userService.findUserByEmail(USER_EMAIL);
+        assertNull(getRaw(PROFILE_CACHE_KEY));
+        userService.findUserByEmail(USER_EMAIL);
+
+        assertEquals(USER_EMAIL, user.getEmail());
+        assertEquals((byte) 0xC5, Objects.requireNonNull(getRaw(PROFILE_CACHE_KEY))[0]);
+    }
+
+    private void saveUser() {
+        userRepository.save(new User(UserType.CUSTOMER.getCode(), "the-strongest-password123", "John Doe", USER_EMAIL, "47776629911", BigDecimal.TEN));
+    }
+
+    private void setRaw(String key, byte[] value) {
+        redisTemplate.execute(connection -> connection.stringCommands().set(key.getBytes(StandardCharsets.UTF_8), value), true);
+    }
+
+    private byte[] getRaw(String key) {
+        return redisTemplate.execute(connection -> connection.stringCommands().get(key.getBytes(StandardCharsets.UTF_8)), true);
+    }
+
+    private TwoLevelCache getCache(String name) {
+        return (TwoLevelCache) Objects.requireNonNull(cacheManager.getCache(name));
+    }
+}
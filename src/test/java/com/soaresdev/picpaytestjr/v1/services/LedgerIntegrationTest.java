@@ -0,0 +1,127 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.entities.LedgerEntry;
+import com.soaresdev.picpaytestjr.entities.User;
+import com.soaresdev.picpaytestjr.entities.enums.LedgerEntryType;
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.repositories.LedgerEntryRepository;
+import com.soaresdev.picpaytestjr.repositories.TransferRepository;
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferDto;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerIntegrationTest extends AbstractIntegrationTest {
+    private static final String PAYER_EMAIL = "johndoe@testing.com";
+    private static final String PAYEE_EMAIL = "marydoe@testing.com";
+
+    @Autowired
+    private TransferExecutionService transferExecutionService;
+    @Autowired
+    private LedgerService ledgerService;
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+    @Autowired
+    private TransferRepository transferRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserIdResolver userIdResolver;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        transferRepository.deleteAll();
+        cleanLedger();
+        userRepository.deleteAll();
+        List.of(PAYER_EMAIL, PAYEE_EMAIL).forEach(userIdResolver::evict);
+        userRepository.save(new User(UserType.CUSTOMER.getCode(), "the-strongest-password123", "John Doe", PAYER_EMAIL, "47776629911", BigDecimal.TEN));
+        userRepository.save(new User(UserType.SELLER.getCode(), "the-strongest-password12345", "Mary Doe", PAYEE_EMAIL, "79610519000141", BigDecimal.ONE));
+    }
+
+    @Test
+    void shouldWriteOneDebitAndOneCreditPerTransferOnEveryExecutionPath() {
+        transferExecutionService.executeWithEntityLocking(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.ONE));
+        transferExecutionService.executeWithSingleStatement(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.valueOf(2)));
+        transferExecutionService.executeBatch(List.of(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.valueOf(3))));
+
+        List<LedgerEntry> entries = ledgerEntryRepository.findAll();
+        Map<UUID, List<LedgerEntry>> entriesByTransfer = entries.stream().
+                filter(entry -> !entry.getEntryTypeCode().equals(LedgerEntryType.OPENING_BALANCE.getCode())).
+                collect(Collectors.groupingBy(LedgerEntry::getTransferUuid));
+        assertEquals(8, entries.size());
+        assertEquals(3, entriesByTransfer.size());
+        entriesByTransfer.values().forEach(transferEntries -> {
+            assertEquals(2, transferEntries.size());
+            assertEquals(0, transferEntries.stream().map(LedgerEntry::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add).signum());
+        });
+
+        for(User user : userRepository.findAll())
+            assertEquals(0, user.getBalance().compareTo(ledgerEntryRepository.findBalanceAt(user.getId(), Instant.now())));
+    }
+
+    @Test
+    void shouldReturn200WithTheBalanceAtAGivenTime() throws InterruptedException {
+        transferExecutionService.executeWithEntityLocking(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.ONE));
+        Instant afterFirstTransfer = Instant.now();
+        Thread.sleep(10);
+        transferExecutionService.executeWithEntityLocking(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.valueOf(4)));
+
+        given().
+                pathParam("email", PAYER_EMAIL).
+                queryParam("at", afterFirstTransfer.toString()).
+        when().
+                get("/v1/user/{email}/balance").
+        then().
+                statusCode(HttpStatus.OK.value()).
+                body("email", equalTo(PAYER_EMAIL)).
+                body("balance", equalTo(9.0f));
+
+        assertEquals(0, ledgerService.findBalanceAt(PAYER_EMAIL, Instant.now()).getBalance().compareTo(BigDecimal.valueOf(5)));
+        assertEquals(0, ledgerService.findBalanceAt(PAYER_EMAIL, Instant.parse("2000-01-01T00:00:00Z")).getBalance().signum());
+        assertThrows(EntityNotFoundException.class, () -> ledgerService.findBalanceAt("invalid@testing.com", Instant.now()));
+    }
+
+    @Test
+    void shouldKeepBalancesAtAnyTimeAcrossSnapshotCompactions() throws InterruptedException {
+        transferExecutionService.executeWithEntityLocking(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.ONE));
+        Thread.sleep(10);
+        Instant firstSnapshot = Instant.now();
+        assertEquals(2, ledgerService.compactSnapshots(firstSnapshot));
+
+        transferExecutionService.executeWithEntityLocking(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.valueOf(2)));
+        Thread.sleep(10);
+        Instant afterSecondTransfer = Instant.now();
+        transferExecutionService.executeWithEntityLocking(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.valueOf(3)));
+        Thread.sleep(10);
+        assertEquals(2, ledgerService.compactSnapshots(Instant.now()));
+        assertEquals(0, ledgerService.compactSnapshots(Instant.now()));
+
+        assertEquals(0, ledgerService.findBalanceAt(PAYER_EMAIL, firstSnapshot).getBalance().compareTo(BigDecimal.valueOf(9)));
+        assertEquals(0, ledgerService.findBalanceAt(PAYER_EMAIL, afterSecondTransfer).getBalance().compareTo(BigDecimal.valueOf(7)));
+        assertEquals(0, ledgerService.findBalanceAt(PAYEE_EMAIL, Instant.now()).getBalance().compareTo(BigDecimal.valueOf(7)));
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT count(*) FROM tb_balance_snapshot", Integer.class));
+    }
+
+    @Test
+    void shouldRejectChangesToLedgerEntries() {
+        assertThrows(DataAccessException.class, () -> jdbcTemplate.update("UPDATE tb_ledger_entry SET amount = 0"));
+        assertThrows(DataAccessException.class, () -> jdbcTemplate.update("DELETE FROM tb_ledger_entry"));
+    }
+}
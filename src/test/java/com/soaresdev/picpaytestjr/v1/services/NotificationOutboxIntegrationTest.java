@@ -0,0 +1,93 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.soaresdev.picpaytestjr.entities.NotificationOutbox;
+import com.soaresdev.picpaytestjr.entities.User;
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.repositories.NotificationOutboxRepository;
+import com.soaresdev.picpaytestjr.repositories.TransferRepository;
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferDto;
+import com.soaresdev.picpaytestjr.v1.dtos.externalApisDto.authorize.AuthorizeDto;
+import com.soaresdev.picpaytestjr.v1.dtos.externalApisDto.authorize.DataDto;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationOutboxIntegrationTest extends AbstractIntegrationTest {
+    private static final String PAYER_EMAIL = "johndoe@testing.com";
+    private static final String PAYEE_EMAIL = "marydoe@testing.com";
+
+    @Autowired
+    private TransferService transferService;
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
+    @Autowired
+    private TransferRepository transferRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setup() throws JsonProcessingException {
+        notificationOutboxRepository.deleteAll();
+        transferRepository.deleteAll();
+        cleanLedger();
+        userRepository.deleteAll();
+        WIREMOCK_SERVER.resetAll();
+        userRepository.save(new User(UserType.CUSTOMER.getCode(), "the-strongest-password123", "John Doe", PAYER_EMAIL, "47776629911", BigDecimal.TEN));
+        userRepository.save(new User(UserType.SELLER.getCode(), "the-strongest-password12345", "Mary Doe", PAYEE_EMAIL, "79610519000141", BigDecimal.ONE));
+
+        WIREMOCK_SERVER.stubFor(get(urlEqualTo("/api/v2/authorize")).
+                willReturn(aResponse().withStatus(HttpStatus.OK.value()).
+                        withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE).
+                        withBody(objectMapper.writeValueAsString(new AuthorizeDto("success", new DataDto(Boolean.TRUE))))));
+    }
+
+    @Test
+    void shouldDispatchNotificationAfterTransfer() throws InterruptedException {
+        WIREMOCK_SERVER.stubFor(post(urlEqualTo("/api/v1/notify")).
+                willReturn(aResponse().withStatus(HttpStatus.OK.value())));
+
+        transferService.transfer(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.ONE));
+
+        waitUntil(() -> notificationOutboxRepository.count() == 0);
+        WIREMOCK_SERVER.verify(1, postRequestedFor(urlEqualTo("/api/v1/notify")));
+    }
+
+    @Test
+    void shouldKeepTransferAndRetryNotificationWhenNotifyFails() throws InterruptedException {
+        WIREMOCK_SERVER.stubFor(post(urlEqualTo("/api/v1/notify")).
+                willReturn(aResponse().withStatus(HttpStatus.SERVICE_UNAVAILABLE.value())));
+
+        transferService.transfer(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.ONE));
+
+        waitUntil(() -> notificationOutboxRepository.findAll().stream().anyMatch(n -> n.getAttempts() > 0));
+        List<NotificationOutbox> notifications = notificationOutboxRepository.findAll();
+        User payee = userRepository.findByEmail(PAYEE_EMAIL).orElseThrow(EntityNotFoundException::new);
+        assertEquals(1, notifications.size());
+        assertNull(notifications.get(0).getFailedAt());
+        assertTrue(notifications.get(0).getNextAttemptAt().isAfter(notifications.get(0).getCreatedAt()));
+        assertEquals(payee.getId(), notifications.get(0).getPayeeId());
+        assertEquals(1, transferRepository.count());
+        assertEquals(0, payee.getBalance().compareTo(BigDecimal.valueOf(2)));
+    }
+
+    private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while(!condition.getAsBoolean()) {
+            if(System.currentTimeMillis() > deadline)
+                fail("Condition not met in time");
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.soaresdev.picpaytestjr.entities.User;
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.exceptions.TransferException;
+import com.soaresdev.picpaytestjr.repositories.TransferRepository;
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferDto;
+import com.soaresdev.picpaytestjr.v1.dtos.externalApisDto.authorize.AuthorizeDto;
+import com.soaresdev.picpaytestjr.v1.dtos.externalApisDto.authorize.DataDto;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferAuthorizationOverlapIntegrationTest extends AbstractIntegrationTest {
+    private static final Logger logger = LoggerFactory.getLogger(TransferAuthorizationOverlapIntegrationTest.class.getName());
+    private static final String PAYER_EMAIL = "johndoe@testing.com";
+    private static final String PAYEE_EMAIL = "marydoe@testing.com";
+    private static final int AUTHORIZER_DELAY_MILLIS = 1_000;
+
+    @Autowired
+    private TransferService transferService;
+    @Autowired
+    private UserIdResolver userIdResolver;
+    @Autowired
+    private TransferRepository transferRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setup() throws JsonProcessingException {
+        WIREMOCK_SERVER.resetAll();
+        transferRepository.deleteAll();
+        cleanLedger();
+        userRepository.deleteAll();
+        userIdResolver.evict(PAYER_EMAIL);
+        userIdResolver.evict(PAYEE_EMAIL);
+        userRepository.save(new User(UserType.CUSTOMER.getCode(), "the-strongest-password123", "John Doe", PAYER_EMAIL, "47776629911", BigDecimal.TEN));
+        userRepository.save(new User(UserType.SELLER.getCode(), "the-strongest-password12345", "Mary Doe", PAYEE_EMAIL, "79610519000141", BigDecimal.ONE));
+
+        WIREMOCK_SERVER.stubFor(get(urlEqualTo("/api/v2/authorize")).
+                willReturn(aResponse().withStatus(HttpStatus.OK.value()).
+                        withFixedDelay(AUTHORIZER_DELAY_MILLIS).
+                        withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE).
+                        withBody(objectMapper.writeValueAsString(new AuthorizeDto("success", new DataDto(Boolean.TRUE))))));
+        WIREMOCK_SERVER.stubFor(post(urlEqualTo("/api/v1/notify")).
+                willReturn(aResponse().withStatus(HttpStatus.OK.value())));
+    }
+
+    @Test
+    void shouldRejectAnUnknownUserWithoutWaitingForTheAuthorizer() {
+        long startedAt = System.nanoTime();
+        EntityNotFoundException e = assertThrows(EntityNotFoundException.class, () ->
+                transferService.transfer(new TransferDto(PAYER_EMAIL, "unknown@testing.com", BigDecimal.ONE)));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        assertEquals("User not found", e.getMessage());
+        assertTrue(elapsedMillis < AUTHORIZER_DELAY_MILLIS / 2, "Rejection took " + elapsedMillis + " ms");
+        assertEquals(0, transferRepository.count());
+    }
+
+    @Test
+    void shouldRejectAnInsufficientBalanceWithoutWaitingForTheAuthorizer() {
+        long startedAt = System.nanoTime();
+        TransferException e = assertThrows(TransferException.class, () ->
+                transferService.transfer(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.valueOf(11))));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        assertEquals("You do not have enough money to transfer", e.getMessage());
+        assertTrue(elapsedMillis < AUTHORIZER_DELAY_MILLIS / 2, "Rejection took " + elapsedMillis + " ms");
+        assertEquals(0, transferRepository.count());
+    }
+
+    @Test
+    void shouldValidateTheTransferWhileTheAuthorizerIsCalled() {
+        transferService.transfer(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.ONE));
+
+        long startedAt = System.nanoTime();
+        transferService.transfer(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.ONE));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        logger.info("Transfer took {} ms with {} ms of authorizer latency", elapsedMillis, AUTHORIZER_DELAY_MILLIS);
+
+        User payer = userRepository.findByEmail(PAYER_EMAIL).orElseThrow(EntityNotFoundException::new);
+        assertTrue(elapsedMillis >= AUTHORIZER_DELAY_MILLIS);
+        assertTrue(elapsedMillis < 2L * AUTHORIZER_DELAY_MILLIS, "Transfer took " + elapsedMillis + " ms");
+        assertEquals(0, payer.getBalance().compareTo(BigDecimal.valueOf(8)));
+        assertEquals(2, transferRepository.count());
+    }
+}
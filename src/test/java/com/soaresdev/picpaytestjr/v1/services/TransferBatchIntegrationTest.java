@@ -0,0 +1,137 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.soaresdev.picpaytestjr.entities.User;
+import com.soaresdev.picpaytestjr.entities.enums.TransferStatus;
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.repositories.TransferRepository;
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferDto;
+import com.soaresdev.picpaytestjr.v1.dtos.externalApisDto.authorize.AuthorizeDto;
+import com.soaresdev.picpaytestjr.v1.dtos.externalApisDto.authorize.DataDto;
+import io.restassured.http.ContentType;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferBatchIntegrationTest extends AbstractIntegrationTest {
+    private static final Logger logger = LoggerFactory.getLogger(TransferBatchIntegrationTest.class.getName());
+    private static final String URL_PATH = "/v1/transfer/batch";
+    private static final String PAYER_EMAIL = "johndoe@testing.com";
+    private static final String PAYEE_EMAIL = "marydoe@testing.com";
+    private static final int BENCHMARK_TRANSFERS = 500;
+
+    @Autowired
+    private TransferService transferService;
+    @Autowired
+    private TransferRepository transferRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setup() throws JsonProcessingException {
+        transferRepository.deleteAll();
+        cleanLedger();
+        userRepository.deleteAll();
+        userRepository.save(new User(UserType.CUSTOMER.getCode(), "the-strongest-password123", "John Doe", PAYER_EMAIL, "47776629911", BigDecimal.TEN));
+        userRepository.save(new User(UserType.SELLER.getCode(), "the-strongest-password12345", "Mary Doe", PAYEE_EMAIL, "79610519000141", BigDecimal.ONE));
+
+        WIREMOCK_SERVER.stubFor(get(urlEqualTo("/api/v2/authorize")).
+                willReturn(aResponse().withStatus(HttpStatus.OK.value()).
+                        withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE).
+                        withBody(objectMapper.writeValueAsString(new AuthorizeDto("success", new DataDto(Boolean.TRUE))))));
+        WIREMOCK_SERVER.stubFor(post(urlEqualTo("/api/v1/notify")).
+                willReturn(aResponse().withStatus(HttpStatus.OK.value())));
+    }
+
+    @Test
+    void shouldReturn200WithTheOutcomeOfEachTransfer() throws JsonProcessingException {
+        List<TransferDto> transferDtos = List.of(
+                new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.valueOf(6)),
+                new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.valueOf(6)),
+                new TransferDto(PAYEE_EMAIL, PAYER_EMAIL, BigDecimal.ONE),
+                new TransferDto("invalid@testing.com", PAYEE_EMAIL, BigDecimal.ONE),
+                new TransferDto(PAYER_EMAIL, PAYER_EMAIL, BigDecimal.ONE),
+                new TransferDto("invalid-payer-email", PAYEE_EMAIL, BigDecimal.ZERO),
+                new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.valueOf(4)));
+
+        given().
+                contentType(ContentType.JSON).
+                body(objectMapper.writeValueAsString(transferDtos)).
+        when().
+                post(URL_PATH).
+        then().
+                statusCode(HttpStatus.OK.value()).
+                contentType(ContentType.JSON).
+                body("size()", equalTo(7)).
+                body("[0].index", equalTo(0)).
+                body("[0].status", equalTo(TransferStatus.SUCCESS.name())).
+                body("[0].message", nullValue()).
+                body("[1].status", equalTo(TransferStatus.NOT_ENOUGH_MONEY.name())).
+                body("[1].message", equalTo("You do not have enough money to transfer")).
+                body("[2].status", equalTo(TransferStatus.PAYER_IS_SELLER.name())).
+                body("[3].status", equalTo(TransferStatus.USER_NOT_FOUND.name())).
+                body("[4].status", equalTo(TransferStatus.SELF_TRANSFER.name())).
+                body("[5].status", equalTo(TransferStatus.INVALID_ARGUMENTS.name())).
+                body("[5].message", equalTo("amount: Balance must be greater than zero, payerEmail: Invalid payer email")).
+                body("[6].index", equalTo(6)).
+                body("[6].status", equalTo(TransferStatus.SUCCESS.name()));
+
+        User payer = userRepository.findByEmail(PAYER_EMAIL).orElseThrow(EntityNotFoundException::new);
+        User payee = userRepository.findByEmail(PAYEE_EMAIL).orElseThrow(EntityNotFoundException::new);
+        assertEquals(0, payer.getBalance().compareTo(BigDecimal.ZERO));
+        assertEquals(0, payee.getBalance().compareTo(BigDecimal.valueOf(11)));
+        assertEquals(2, transferRepository.count());
+    }
+
+    @Test
+    void shouldReturn422WhenBatchIsEmpty() {
+        given().
+                contentType(ContentType.JSON).
+                body("[]").
+        when().
+                post(URL_PATH).
+        then().
+                statusCode(HttpStatus.UNPROCESSABLE_ENTITY.value()).
+                body("message", equalTo("A batch must have between 1 and 1000 transfers"));
+    }
+
+    @Test
+    void shouldCompareBatchAndPerRequestThroughput() {
+        User payer = userRepository.findByEmail(PAYER_EMAIL).orElseThrow(EntityNotFoundException::new);
+        payer.setBalance(BigDecimal.valueOf(10_000));
+        userRepository.save(payer);
+        List<TransferDto> transferDtos = new ArrayList<>();
+        for(int i = 0; i < BENCHMARK_TRANSFERS; i++)
+            transferDtos.add(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.ONE));
+
+        long startedAt = System.nanoTime();
+        transferDtos.forEach(transferService::transfer);
+        long perRequestNanos = System.nanoTime() - startedAt;
+
+        startedAt = System.nanoTime();
+        List<?> results = transferService.transferBatch(transferDtos);
+        long batchNanos = System.nanoTime() - startedAt;
+
+        logger.info("Batch benchmark: {} transfers one by one in {} ms, as one batch in {} ms",
+                BENCHMARK_TRANSFERS, TimeUnit.NANOSECONDS.toMillis(perRequestNanos), TimeUnit.NANOSECONDS.toMillis(batchNanos));
+        assertEquals(BENCHMARK_TRANSFERS, results.size());
+        assertEquals(2L * BENCHMARK_TRANSFERS, transferRepository.count());
+    }
+}
@@ -0,0 +1,107 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.soaresdev.picpaytestjr.entities.User;
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.exceptions.TransferException;
+import com.soaresdev.picpaytestjr.repositories.TransferRepository;
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferDto;
+import com.soaresdev.picpaytestjr.v1.dtos.externalApisDto.authorize.AuthorizeDto;
+import com.soaresdev.picpaytestjr.v1.dtos.externalApisDto.authorize.DataDto;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferConcurrencyIntegrationTest extends AbstractIntegrationTest {
+    private static final Logger logger = LoggerFactory.getLogger(TransferConcurrencyIntegrationTest.class.getName());
+    private static final String PAYER_EMAIL = "johndoe@testing.com";
+    private static final String PAYEE_EMAIL = "marydoe@testing.com";
+    private static final BigDecimal PAYER_INITIAL_BALANCE = BigDecimal.valueOf(100);
+    private static final BigDecimal PAYEE_INITIAL_BALANCE = BigDecimal.ONE;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS = 200;
+
+    @Autowired
+    private TransferService transferService;
+    @Autowired
+    private TransferRepository transferRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setup() throws JsonProcessingException {
+        transferRepository.deleteAll();
+        cleanLedger();
+        userRepository.deleteAll();
+        userRepository.save(new User(UserType.CUSTOMER.getCode(), "the-strongest-password123", "John Doe", PAYER_EMAIL, "47776629911", PAYER_INITIAL_BALANCE));
+        userRepository.save(new User(UserType.SELLER.getCode(), "the-strongest-password12345", "Mary Doe", PAYEE_EMAIL, "79610519000141", PAYEE_INITIAL_BALANCE));
+
+        WIREMOCK_SERVER.stubFor(get(urlEqualTo("/api/v2/authorize")).
+                willReturn(aResponse().withStatus(HttpStatus.OK.value()).
+                        withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE).
+                        withBody(objectMapper.writeValueAsString(new AuthorizeDto("success", new DataDto(Boolean.TRUE))))));
+        WIREMOCK_SERVER.stubFor(post(urlEqualTo("/api/v1/notify")).
+                willReturn(aResponse().withStatus(HttpStatus.OK.value())));
+    }
+
+    @Test
+    void shouldNotLoseUpdatesWhenTransfersFromTheSamePayerRunConcurrently() throws Exception {
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for(int i = 0; i < TRANSFERS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    transferService.transfer(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.ONE));
+                    succeeded.incrementAndGet();
+                } catch (TransferException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for(Future<?> future : futures)
+            future.get(2, TimeUnit.MINUTES);
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        User payer = userRepository.findByEmail(PAYER_EMAIL).orElseThrow(EntityNotFoundException::new);
+        User payee = userRepository.findByEmail(PAYEE_EMAIL).orElseThrow(EntityNotFoundException::new);
+        logger.info("Contention benchmark: {} transfers on {} threads in {} ms ({} transfers/s), {} succeeded, {} rejected",
+                TRANSFERS, THREADS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                String.format("%.1f", TRANSFERS / (elapsedNanos / 1_000_000_000.0)), succeeded.get(), rejected.get());
+
+        assertEquals(PAYER_INITIAL_BALANCE.intValue(), succeeded.get());
+        assertEquals(TRANSFERS - PAYER_INITIAL_BALANCE.intValue(), rejected.get());
+        assertEquals(succeeded.get(), transferRepository.count());
+        assertEquals(0, payer.getBalance().compareTo(BigDecimal.ZERO));
+        assertEquals(0, payee.getBalance().compareTo(PAYEE_INITIAL_BALANCE.add(PAYER_INITIAL_BALANCE)));
+        assertEquals(0, payer.getBalance().add(payee.getBalance()).compareTo(PAYER_INITIAL_BALANCE.add(PAYEE_INITIAL_BALANCE)));
+    }
+}
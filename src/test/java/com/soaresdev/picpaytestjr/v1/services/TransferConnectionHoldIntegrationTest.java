@@ -0,0 +1,87 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.soaresdev.picpaytestjr.entities.User;
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.repositories.TransferRepository;
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferDto;
+import com.soaresdev.picpaytestjr.v1.dtos.externalApisDto.authorize.AuthorizeDto;
+import com.soaresdev.picpaytestjr.v1.dtos.externalApisDto.authorize.DataDto;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferConnectionHoldIntegrationTest extends AbstractIntegrationTest {
+    private static final Logger logger = LoggerFactory.getLogger(TransferConnectionHoldIntegrationTest.class.getName());
+    private static final String PAYER_EMAIL = "johndoe@testing.com";
+    private static final String PAYEE_EMAIL = "marydoe@testing.com";
+    private static final int EXTERNAL_API_DELAY_MILLIS = 1_000;
+    private static final long SAMPLE_INTERVAL_MILLIS = 5;
+
+    @Autowired
+    private TransferService transferService;
+    @Autowired
+    private TransferRepository transferRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setup() throws JsonProcessingException {
+        transferRepository.deleteAll();
+        cleanLedger();
+        userRepository.deleteAll();
+        userRepository.save(new User(UserType.CUSTOMER.getCode(), "the-strongest-password123", "John Doe", PAYER_EMAIL, "47776629911", BigDecimal.TEN));
+        userRepository.save(new User(UserType.SELLER.getCode(), "the-strongest-password12345", "Mary Doe", PAYEE_EMAIL, "79610519000141", BigDecimal.ONE));
+
+        WIREMOCK_SERVER.stubFor(get(urlEqualTo("/api/v2/authorize")).
+                willReturn(aResponse().withStatus(HttpStatus.OK.value()).
+                        withFixedDelay(EXTERNAL_API_DELAY_MILLIS).
+                        withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE).
+                        withBody(objectMapper.writeValueAsString(new AuthorizeDto("success", new DataDto(Boolean.TRUE))))));
+        WIREMOCK_SERVER.stubFor(post(urlEqualTo("/api/v1/notify")).
+                willReturn(aResponse().withStatus(HttpStatus.OK.value()).
+                        withFixedDelay(EXTERNAL_API_DELAY_MILLIS)));
+    }
+
+    @Test
+    void shouldNotHoldAConnectionWhileCallingExternalApis() throws Exception {
+        HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+        long startedAt = System.nanoTime();
+        CompletableFuture<Void> transfer = CompletableFuture.runAsync(() ->
+                transferService.transfer(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.ONE)));
+
+        long samplesWithActiveConnection = 0;
+        while(!transfer.isDone()) {
+            if(pool.getActiveConnections() > 0)
+                samplesWithActiveConnection++;
+            Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+        }
+        transfer.get(10, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        long connectionHoldMillis = samplesWithActiveConnection * SAMPLE_INTERVAL_MILLIS;
+        logger.info("Transfer took {} ms with {} ms of external API latency, a connection was held for ~{} ms",
+                elapsedMillis, EXTERNAL_API_DELAY_MILLIS, connectionHoldMillis);
+
+        assertTrue(elapsedMillis >= EXTERNAL_API_DELAY_MILLIS);
+        assertTrue(connectionHoldMillis < EXTERNAL_API_DELAY_MILLIS / 2,
+                "Connection held for ~" + connectionHoldMillis + " ms");
+        assertEquals(1, transferRepository.count());
+    }
+}
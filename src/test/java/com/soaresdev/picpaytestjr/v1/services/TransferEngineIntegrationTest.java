@@ -0,0 +1,256 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.engine.EngineAccount;
+import com.soaresdev.picpaytestjr.engine.EngineTransfer;
+import com.soaresdev.picpaytestjr.engine.JdbcAccountLoader;
+import com.soaresdev.picpaytestjr.engine.JdbcEngineLease;
+import com.soaresdev.picpaytestjr.engine.TransferEngine;
+import com.soaresdev.picpaytestjr.entities.User;
+import com.soaresdev.picpaytestjr.entities.enums.TransferStatus;
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.exceptions.TransferException;
+import com.soaresdev.picpaytestjr.repositories.NotificationOutboxRepository;
+import com.soaresdev.picpaytestjr.repositories.TransferRepository;
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferBatchResultDto;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferDto;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = {"transfer.execution-mode=IN_MEMORY", "transfer.engine.partitions=4"})
+class TransferEngineIntegrationTest extends AbstractIntegrationTest {
+    private static final Logger logger = LoggerFactory.getLogger(TransferEngineIntegrationTest.class.getName());
+    private static final String SELLER_EMAIL = "seller@testing.com";
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1_000);
+    private static final int ACCOUNTS = 16;
+    private static final int THREADS = 8;
+    private static final int TRANSFERS = 2_000;
+
+    @Autowired
+    private TransferExecutionService transferExecutionService;
+    @Autowired
+    private TransferEngine transferEngine;
+    @Autowired
+    private UserIdResolver userIdResolver;
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
+    @Autowired
+    private TransferRepository transferRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DataSource dataSource;
+
+    private final List<User> customers = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        notificationOutboxRepository.deleteAll();
+        transferRepository.deleteAll();
+        cleanLedger();
+        userRepository.deleteAll();
+        customers.clear();
+        for(int i = 0; i < ACCOUNTS; i++) {
+            String email = "customer" + i + "@testing.com";
+            userIdResolver.evict(email);
+            customers.add(userRepository.save(new User(UserType.CUSTOMER.getCode(), "the-strongest-password123",
+                    "Customer " + i, email, String.format("%011d", i), INITIAL_BALANCE)));
+        }
+        userIdResolver.evict(SELLER_EMAIL);
+        userRepository.save(new User(UserType.SELLER.getCode(), "the-strongest-password12345", "Mary Doe", SELLER_EMAIL, "79610519000141", INITIAL_BALANCE));
+
+        WIREMOCK_SERVER.stubFor(post(urlEqualTo("/api/v1/notify")).
+                willReturn(aResponse().withStatus(HttpStatus.OK.value())));
+    }
+
+    @Test
+    void shouldPersistConcurrentCrossPartitionTransfersAndRecoverFromTheDatabase() throws Exception {
+        Map<String, BigDecimal> deltas = new ConcurrentHashMap<>();
+        AtomicInteger succeeded = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        long startedAt = System.nanoTime();
+        for(int i = 0; i < TRANSFERS; i++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                String payerEmail = customers.get(random.nextInt(ACCOUNTS)).getEmail();
+                String payeeEmail = customers.get(random.nextInt(ACCOUNTS)).getEmail();
+                BigDecimal amount = BigDecimal.valueOf(random.nextInt(1, 20));
+                try {
+                    transferExecutionService.executeInMemory(new TransferDto(payerEmail, payeeEmail, amount));
+                    deltas.merge(payerEmail, amount.negate(), BigDecimal::add);
+                    deltas.merge(payeeEmail, amount, BigDecimal::add);
+                    succeeded.incrementAndGet();
+                } catch(TransferException ignored) {
+                    // Self transfers and drained payers are expected among random transfers
+                }
+            }));
+        }
+        for(Future<?> future : futures)
+            future.get(2, TimeUnit.MINUTES);
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+        logger.info("Engine benchmark: {} transfers on {} threads and {} partitions, {} succeeded, {} transfers/s",
+                TRANSFERS, THREADS, transferEngine.getPartitionCount(), succeeded.get(),
+                String.format("%.1f", TRANSFERS / (elapsedNanos / 1_000_000_000.0)));
+
+        TransferEngine recoveredEngine = new TransferEngine(2, 100, Duration.ofSeconds(5),
+                new JdbcAccountLoader(jdbcTemplate), transfers -> fail("The recovered engine must not journal"));
+        try {
+            BigDecimal total = BigDecimal.ZERO;
+            for(User customer : customers) {
+                User persisted = userRepository.findByEmail(customer.getEmail()).orElseThrow(EntityNotFoundException::new);
+                BigDecimal expected = INITIAL_BALANCE.add(deltas.getOrDefault(customer.getEmail(), BigDecimal.ZERO));
+                assertEquals(0, persisted.getBalance().compareTo(expected));
+                assertEquals(0, transferEngine.balanceOf(customer.getId()).get(5, TimeUnit.SECONDS).compareTo(expected));
+                assertEquals(0, recoveredEngine.balanceOf(customer.getId()).get(5, TimeUnit.SECONDS).compareTo(expected));
+                total = total.add(persisted.getBalance());
+            }
+            assertEquals(0, total.compareTo(INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS))));
+        } finally {
+            recoveredEngine.shutdown();
+        }
+        assertEquals(succeeded.get(), transferRepository.count());
+        assertEquals(2L * succeeded.get(), jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_ledger_entry WHERE transfer_uuid IS NOT NULL", Long.class));
+    }
+
+    @Test
+    void shouldMapEngineStatusesToTheSameErrorsAsTheOtherPaths() {
+        String payerEmail = customers.get(0).getEmail();
+        String payeeEmail = customers.get(1).getEmail();
+
+        EntityNotFoundException notFound = assertThrows(EntityNotFoundException.class, () -> transferExecutionService.
+                executeInMemory(new TransferDto("invalid@testing.com", payeeEmail, BigDecimal.ONE)));
+        TransferException seller = assertThrows(TransferException.class, () -> transferExecutionService.
+                executeInMemory(new TransferDto(SELLER_EMAIL, payerEmail, BigDecimal.ONE)));
+        TransferException notEnoughMoney = assertThrows(TransferException.class, () -> transferExecutionService.
+                executeInMemory(new TransferDto(payerEmail, payeeEmail, INITIAL_BALANCE.add(BigDecimal.ONE))));
+        TransferException itself = assertThrows(TransferException.class, () -> transferExecutionService.
+                executeInMemory(new TransferDto(payerEmail, payerEmail, BigDecimal.ONE)));
+
+        assertEquals("User not found", notFound.getMessage());
+        assertEquals("You are not allowed to transfer as a seller", seller.getMessage());
+        assertEquals("You do not have enough money to transfer", notEnoughMoney.getMessage());
+        assertEquals("You are not allowed to transfer to yourself", itself.getMessage());
+        assertEquals(0, transferRepository.count());
+    }
+
+    @Test
+    void shouldApplyBatchTransfersInOrder() {
+        String firstEmail = customers.get(0).getEmail();
+        String secondEmail = customers.get(1).getEmail();
+        String thirdEmail = customers.get(2).getEmail();
+
+        List<TransferBatchResultDto> results = transferExecutionService.executeBatchInMemory(List.of(
+                new TransferDto(firstEmail, secondEmail, BigDecimal.valueOf(600)),
+                new TransferDto(secondEmail, thirdEmail, BigDecimal.valueOf(1_500)),
+                new TransferDto(firstEmail, thirdEmail, BigDecimal.valueOf(600)),
+                new TransferDto("invalid@testing.com", thirdEmail, BigDecimal.ONE)));
+
+        assertEquals(List.of(TransferStatus.SUCCESS, TransferStatus.SUCCESS, TransferStatus.NOT_ENOUGH_MONEY,
+                TransferStatus.USER_NOT_FOUND), results.stream().map(TransferBatchResultDto::getStatus).toList());
+        assertEquals(2, transferRepository.count());
+        assertEquals(0, balanceOf(thirdEmail).compareTo(INITIAL_BALANCE.add(BigDecimal.valueOf(1_500))));
+        assertEquals(0, balanceOf(secondEmail).compareTo(BigDecimal.valueOf(100)));
+    }
+
+    @Test
+    void shouldRefuseToStartASecondEngineWhileTheLeaseIsHeld() {
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> new JdbcEngineLease(dataSource));
+
+        assertEquals("The transfer engine is already running on another node", e.getMessage());
+    }
+
+    @Test
+    void shouldOnlyRevertTheTransfersThatFailToPersist() throws Exception {
+        UUID firstId = UUID.randomUUID();
+        UUID secondId = UUID.randomUUID();
+        UUID thirdId = UUID.randomUUID();
+        Map<UUID, EngineAccount> accounts = Map.of(
+                firstId, new EngineAccount(UserType.CUSTOMER.getCode(), BigDecimal.valueOf(100)),
+                secondId, new EngineAccount(UserType.CUSTOMER.getCode(), BigDecimal.valueOf(100)),
+                thirdId, new EngineAccount(UserType.CUSTOMER.getCode(), BigDecimal.valueOf(100)));
+        TransferEngine engine = new TransferEngine(2, 100, Duration.ofSeconds(5), accounts::get, transfers -> {
+            if(transfers.stream().anyMatch(transfer -> transfer.getAmount().compareTo(BigDecimal.valueOf(13)) == 0))
+                throw new IllegalStateException("Rejected by the journal");
+        });
+        try {
+            List<EngineTransfer> transfers = List.of(
+                    engine.submit(firstId, secondId, BigDecimal.TEN),
+                    engine.submit(firstId, thirdId, BigDecimal.valueOf(13)),
+                    engine.submit(secondId, thirdId, BigDecimal.valueOf(20)));
+
+            assertEquals(TransferStatus.SUCCESS, transfers.get(0).persisted().get(5, TimeUnit.SECONDS));
+            ExecutionException rejected = assertThrows(ExecutionException.class, () -> transfers.get(1).persisted().get(5, TimeUnit.SECONDS));
+            assertEquals(TransferStatus.SUCCESS, transfers.get(2).persisted().get(5, TimeUnit.SECONDS));
+            assertEquals("Rejected by the journal", rejected.getCause().getMessage());
+            assertEquals(0, engine.balanceOf(firstId).get(5, TimeUnit.SECONDS).compareTo(BigDecimal.valueOf(90)));
+            assertEquals(0, engine.balanceOf(secondId).get(5, TimeUnit.SECONDS).compareTo(BigDecimal.valueOf(90)));
+            assertEquals(0, engine.balanceOf(thirdId).get(5, TimeUnit.SECONDS).compareTo(BigDecimal.valueOf(120)));
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void shouldFailTheUnpersistedTransfersWhenTheJournalDoesNotStopInTime() throws Exception {
+        UUID payerId = UUID.randomUUID();
+        UUID payeeId = UUID.randomUUID();
+        Map<UUID, EngineAccount> accounts = Map.of(
+                payerId, new EngineAccount(UserType.CUSTOMER.getCode(), BigDecimal.valueOf(100)),
+                payeeId, new EngineAccount(UserType.CUSTOMER.getCode(), BigDecimal.valueOf(100)));
+        CountDownLatch journalReleased = new CountDownLatch(1);
+        TransferEngine engine = new TransferEngine(2, 100, Duration.ofMillis(200), accounts::get, transfers -> {
+            try {
+                journalReleased.await();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            EngineTransfer transfer = engine.submit(payerId, payeeId, BigDecimal.TEN);
+            assertEquals(TransferStatus.SUCCESS, transfer.applied().get(5, TimeUnit.SECONDS));
+
+            engine.shutdown();
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> transfer.persisted().get(1, TimeUnit.SECONDS));
+            assertEquals("Transfer engine stopped before the transfer was persisted", e.getCause().getMessage());
+        } finally {
+            journalReleased.countDown();
+        }
+    }
+
+    private BigDecimal balanceOf(String email) {
+        return userRepository.findByEmail(email).orElseThrow(EntityNotFoundException::new).getBalance();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.entities.User;
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.exceptions.TransferException;
+import com.soaresdev.picpaytestjr.repositories.TransferRepository;
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferDto;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferExecutionBenchmarkIntegrationTest extends AbstractIntegrationTest {
+    private static final Logger logger = LoggerFactory.getLogger(TransferExecutionBenchmarkIntegrationTest.class.getName());
+    private static final String PAYER_EMAIL = "johndoe@testing.com";
+    private static final String PAYEE_EMAIL = "marydoe@testing.com";
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(100_000);
+    private static final int THREADS = 8;
+    private static final int WARMUP_TRANSFERS = 200;
+    private static final int TRANSFERS = 1_000;
+
+    @Autowired
+    private TransferExecutionService transferExecutionService;
+    @Autowired
+    private TransferRepository transferRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setup() {
+        transferRepository.deleteAll();
+        cleanLedger();
+        userRepository.deleteAll();
+        userRepository.save(new User(UserType.CUSTOMER.getCode(), "the-strongest-password123", "John Doe", PAYER_EMAIL, "47776629911", INITIAL_BALANCE));
+        userRepository.save(new User(UserType.SELLER.getCode(), "the-strongest-password12345", "Mary Doe", PAYEE_EMAIL, "79610519000141", INITIAL_BALANCE));
+    }
+
+    @Test
+    void shouldMapSingleStatementStatusCodesToTheSameErrorsAsTheEntityPath() {
+        EntityNotFoundException notFound = assertThrows(EntityNotFoundException.class, () -> transferExecutionService.
+                executeWithSingleStatement(new TransferDto("invalid@testing.com", PAYEE_EMAIL, BigDecimal.ONE)));
+        TransferException seller = assertThrows(TransferException.class, () -> transferExecutionService.
+                executeWithSingleStatement(new TransferDto(PAYEE_EMAIL, PAYER_EMAIL, BigDecimal.ONE)));
+        TransferException notEnoughMoney = assertThrows(TransferException.class, () -> transferExecutionService.
+                executeWithSingleStatement(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, INITIAL_BALANCE.add(BigDecimal.ONE))));
+        TransferException itself = assertThrows(TransferException.class, () -> transferExecutionService.
+                executeWithSingleStatement(new TransferDto(PAYER_EMAIL, PAYER_EMAIL, BigDecimal.ONE)));
+
+        assertEquals("User not found", notFound.getMessage());
+        assertEquals("You are not allowed to transfer as a seller", seller.getMessage());
+        assertEquals("You do not have enough money to transfer", notEnoughMoney.getMessage());
+        assertEquals("You are not allowed to transfer to yourself", itself.getMessage());
+        assertEquals(0, transferRepository.count());
+    }
+
+    @Test
+    void shouldKeepBalancesConsistentOnBothExecutionPaths() throws Exception {
+        run("entity locking", WARMUP_TRANSFERS, transferExecutionService::executeWithEntityLocking);
+        run("single statement", WARMUP_TRANSFERS, transferExecutionService::executeWithSingleStatement);
+        run("entity locking", TRANSFERS, transferExecutionService::executeWithEntityLocking);
+        run("single statement", TRANSFERS, transferExecutionService::executeWithSingleStatement);
+
+        int totalTransfers = 2 * (WARMUP_TRANSFERS + TRANSFERS);
+        User payer = userRepository.findByEmail(PAYER_EMAIL).orElseThrow(EntityNotFoundException::new);
+        User payee = userRepository.findByEmail(PAYEE_EMAIL).orElseThrow(EntityNotFoundException::new);
+        assertEquals(totalTransfers, transferRepository.count());
+        assertEquals(0, payer.getBalance().compareTo(INITIAL_BALANCE.subtract(BigDecimal.valueOf(totalTransfers))));
+        assertEquals(0, payee.getBalance().compareTo(INITIAL_BALANCE.add(BigDecimal.valueOf(totalTransfers))));
+    }
+
+    private void run(String path, int transfers, Consumer<TransferDto> execution) throws Exception {
+        long[] latencies = new long[transfers];
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        long startedAt = System.nanoTime();
+        for(int i = 0; i < transfers; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> {
+                long transferStartedAt = System.nanoTime();
+                execution.accept(new TransferDto(PAYER_EMAIL, PAYEE_EMAIL, BigDecimal.ONE));
+                latencies[index] = System.nanoTime() - transferStartedAt;
+            }));
+        }
+        for(Future<?> future : futures)
+            future.get(2, TimeUnit.MINUTES);
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        Arrays.sort(latencies);
+        logger.info("Execution benchmark [{}]: {} transfers on {} threads, {} transfers/s, p50 {} us, p99 {} us",
+                path, transfers, THREADS, String.format("%.1f", transfers / (elapsedNanos / 1_000_000_000.0)),
+                TimeUnit.NANOSECONDS.toMicros(latencies[transfers / 2]),
+                TimeUnit.NANOSECONDS.toMicros(latencies[(int) (transfers * 0.99)]));
+    }
+}
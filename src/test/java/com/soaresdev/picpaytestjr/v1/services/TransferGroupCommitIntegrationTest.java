@@ -0,0 +1,154 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.entities.User;
+import com.soaresdev.picpaytestjr.entities.enums.TransferStatus;
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.exceptions.TransferException;
+import com.soaresdev.picpaytestjr.repositories.NotificationOutboxRepository;
+import com.soaresdev.picpaytestjr.repositories.TransferRepository;
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferDto;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.TestPropertySource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = "transfer.execution-mode=GROUP_COMMIT")
+class TransferGroupCommitIntegrationTest extends AbstractIntegrationTest {
+    private static final Logger logger = LoggerFactory.getLogger(TransferGroupCommitIntegrationTest.class.getName());
+    private static final String SELLER_EMAIL = "seller@testing.com";
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(100_000);
+    private static final int PAYERS = 16;
+    private static final int THREADS = 32;
+    private static final int TRANSFERS = 1_000;
+
+    @Autowired
+    private TransferExecutionService transferExecutionService;
+    @Autowired
+    private UserIdResolver userIdResolver;
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
+    @Autowired
+    private TransferRepository transferRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<String> payerEmails = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        notificationOutboxRepository.deleteAll();
+        transferRepository.deleteAll();
+        cleanLedger();
+        userRepository.deleteAll();
+        payerEmails.clear();
+        for(int i = 0; i < PAYERS; i++) {
+            String email = "customer" + i + "@testing.com";
+            userIdResolver.evict(email);
+            payerEmails.add(email);
+            userRepository.save(new User(UserType.CUSTOMER.getCode(), "the-strongest-password123",
+                    "Customer " + i, email, String.format("%011d", i), INITIAL_BALANCE));
+        }
+        userIdResolver.evict(SELLER_EMAIL);
+        userRepository.save(new User(UserType.SELLER.getCode(), "the-strongest-password12345", "Mary Doe", SELLER_EMAIL, "79610519000141", BigDecimal.ZERO));
+
+        WIREMOCK_SERVER.stubFor(post(urlEqualTo("/api/v1/notify")).
+                willReturn(aResponse().withStatus(HttpStatus.OK.value())));
+    }
+
+    @Test
+    void shouldMapGroupedStatusesToTheSameErrorsAsTheOtherPaths() {
+        String payerEmail = payerEmails.get(0);
+        List<CompletableFuture<Throwable>> outcomes = List.of(
+                failure(new TransferDto("invalid@testing.com", SELLER_EMAIL, BigDecimal.ONE)),
+                failure(new TransferDto(SELLER_EMAIL, payerEmail, BigDecimal.ONE)),
+                failure(new TransferDto(payerEmail, SELLER_EMAIL, INITIAL_BALANCE.add(BigDecimal.ONE))),
+                failure(new TransferDto(payerEmail, payerEmail, BigDecimal.ONE)),
+                failure(new TransferDto(payerEmail, SELLER_EMAIL, BigDecimal.TEN)));
+
+        assertInstanceOf(EntityNotFoundException.class, outcomes.get(0).join());
+        assertEquals("You are not allowed to transfer as a seller", outcomes.get(1).join().getMessage());
+        assertEquals("You do not have enough money to transfer", outcomes.get(2).join().getMessage());
+        assertEquals("You are not allowed to transfer to yourself", outcomes.get(3).join().getMessage());
+        assertNull(outcomes.get(4).join());
+        assertInstanceOf(TransferException.class, outcomes.get(3).join());
+        assertEquals(1, transferRepository.count());
+    }
+
+    @Test
+    void shouldCompareThroughputAndLatencyByGroupWindow() throws Exception {
+        run("per transaction", transferExecutionService::executeWithEntityLocking);
+        run("group commit 2000 us / 64", transferExecutionService::executeWithGroupCommit);
+        int totalTransfers = 2 * TRANSFERS;
+        for(long[] window : new long[][]{{500, 16}, {5_000, 256}}) {
+            TransferGroupCommitter committer = new TransferGroupCommitter(transferExecutionService, window[0], (int) window[1], 1);
+            try {
+                run("group commit " + window[0] + " us / " + window[1], transferDto ->
+                        assertEquals(TransferStatus.SUCCESS, committer.submit(transferDto).join().getStatus()));
+            } finally {
+                committer.shutdown();
+            }
+            totalTransfers += TRANSFERS;
+        }
+
+        User seller = userRepository.findByEmail(SELLER_EMAIL).orElseThrow(EntityNotFoundException::new);
+        assertEquals(totalTransfers, transferRepository.count());
+        assertEquals(0, seller.getBalance().compareTo(BigDecimal.valueOf(totalTransfers)));
+    }
+
+    private CompletableFuture<Throwable> failure(TransferDto transferDto) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                transferExecutionService.executeWithGroupCommit(transferDto);
+                return null;
+            } catch(RuntimeException e) {
+                return e;
+            }
+        });
+    }
+
+    private void run(String path, Consumer<TransferDto> execution) throws Exception {
+        long[] latencies = new long[TRANSFERS];
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        long startedAt = System.nanoTime();
+        for(int i = 0; i < TRANSFERS; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> {
+                long transferStartedAt = System.nanoTime();
+                execution.accept(new TransferDto(payerEmails.get(ThreadLocalRandom.current().nextInt(PAYERS)),
+                        SELLER_EMAIL, BigDecimal.ONE));
+                latencies[index] = System.nanoTime() - transferStartedAt;
+            }));
+        }
+        for(Future<?> future : futures)
+            future.get(2, TimeUnit.MINUTES);
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        Arrays.sort(latencies);
+        logger.info("Group commit benchmark [{}]: {} transfers on {} threads, {} transfers/s, p50 {} us, p99 {} us",
+                path, TRANSFERS, THREADS, String.format("%.1f", TRANSFERS / (elapsedNanos / 1_000_000_000.0)),
+                TimeUnit.NANOSECONDS.toMicros(latencies[TRANSFERS / 2]),
+                TimeUnit.NANOSECONDS.toMicros(latencies[(int) (TRANSFERS * 0.99)]));
+    }
+}
@@ -0,0 +1,165 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.entities.Transfer;
+import com.soaresdev.picpaytestjr.entities.User;
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.exceptions.InvalidPaginationException;
+import com.soaresdev.picpaytestjr.repositories.TransferRepository;
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import io.restassured.http.ContentType;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferHistoryIntegrationTest extends AbstractIntegrationTest {
+    private static final String URL_PATH = "/v1/user/{email}/transfers";
+    private static final String JOHN_EMAIL = "johndoe@testing.com";
+    private static final String MARY_EMAIL = "marydoe@testing.com";
+    private static final String ANN_EMAIL = "anndoe@testing.com";
+    private static final Instant FIRST_TRANSFER_AT = Instant.parse("2025-01-01T12:00:00Z");
+
+    @Autowired
+    private TransferRepository transferRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserIdResolver userIdResolver;
+
+    @BeforeEach
+    void setup() {
+        transferRepository.deleteAll();
+        cleanLedger();
+        userRepository.deleteAll();
+        List.of(JOHN_EMAIL, MARY_EMAIL, ANN_EMAIL).forEach(userIdResolver::evict);
+        User john = userRepository.save(new User(UserType.CUSTOMER.getCode(), "the-strongest-password123", "John Doe", JOHN_EMAIL, "47776629911", BigDecimal.TEN));
+        User mary = userRepository.save(new User(UserType.SELLER.getCode(), "the-strongest-password12345", "Mary Doe", MARY_EMAIL, "79610519000141", BigDecimal.ONE));
+        User ann = userRepository.save(new User(UserType.CUSTOMER.getCode(), "the-strongest-password1234", "Ann Doe", ANN_EMAIL, "52998224725", BigDecimal.TEN));
+
+        // John sends 1, 2 and 3 to Mary, and receives 4 and 5 from Ann, one transfer per minute
+        List<Transfer> transfers = new ArrayList<>();
+        for(int i = 0; i < 5; i++) {
+            Instant createdAt = FIRST_TRANSFER_AT.plus(i, ChronoUnit.MINUTES);
+            BigDecimal value = BigDecimal.valueOf(i + 1L);
+            transfers.add(i < 3 ? new Transfer(mary, john, createdAt, value) : new Transfer(john, ann, createdAt, value));
+        }
+        transferRepository.saveAll(transfers);
+    }
+
+    @Test
+    void shouldReturn200WithAllTransfersNewestFirstOneCursorPageAtATime() {
+        String nextCursor = given().
+                pathParam("email", JOHN_EMAIL).
+                queryParam("size", 3).
+        when().
+                get(URL_PATH).
+        then().
+                statusCode(HttpStatus.OK.value()).
+                contentType(ContentType.JSON).
+                body("content.size()", equalTo(3)).
+                body("content.value", contains(5.0f, 4.0f, 3.0f)).
+                body("content[0].payerEmail", equalTo(ANN_EMAIL)).
+                body("content[0].payeeEmail", equalTo(JOHN_EMAIL)).
+                body("content[0].uuid", notNullValue()).
+                body("content[0].createdAt", notNullValue()).
+                body("content[0].id", nullValue()).
+                body("hasNext", equalTo(true)).
+                extract().path("nextCursor");
+
+        given().
+                pathParam("email", JOHN_EMAIL).
+                queryParam("size", 3).
+                queryParam("after", nextCursor).
+        when().
+                get(URL_PATH).
+        then().
+                statusCode(HttpStatus.OK.value()).
+                body("content.value", contains(2.0f, 1.0f)).
+                body("content[0].payerEmail", equalTo(JOHN_EMAIL)).
+                body("content[0].payeeEmail", equalTo(MARY_EMAIL)).
+                body("hasNext", equalTo(false)).
+                body("nextCursor", nullValue());
+    }
+
+    @Test
+    void shouldReturn200WithTransfersFilteredByDirection() {
+        given().
+                pathParam("email", JOHN_EMAIL).
+                queryParam("direction", "SENT").
+        when().
+                get(URL_PATH).
+        then().
+                statusCode(HttpStatus.OK.value()).
+                body("content.value", contains(3.0f, 2.0f, 1.0f)).
+                body("content.payerEmail", everyItem(equalTo(JOHN_EMAIL)));
+
+        given().
+                pathParam("email", JOHN_EMAIL).
+                queryParam("direction", "RECEIVED").
+        when().
+                get(URL_PATH).
+        then().
+                statusCode(HttpStatus.OK.value()).
+                body("content.value", contains(5.0f, 4.0f)).
+                body("content.payeeEmail", everyItem(equalTo(JOHN_EMAIL)));
+    }
+
+    @Test
+    void shouldReturn200WithTransfersInsideTheDateRange() {
+        given().
+                pathParam("email", JOHN_EMAIL).
+                queryParam("from", FIRST_TRANSFER_AT.plus(1, ChronoUnit.MINUTES).toString()).
+                queryParam("to", FIRST_TRANSFER_AT.plus(4, ChronoUnit.MINUTES).toString()).
+                queryParam("size", 2).
+        when().
+                get(URL_PATH).
+        then().
+                statusCode(HttpStatus.OK.value()).
+                body("content.value", contains(4.0f, 3.0f)).
+                body("hasNext", equalTo(true));
+    }
+
+    @Test
+    void shouldReturn400WhenDateRangeIsInvalid() {
+        given().
+                pathParam("email", JOHN_EMAIL).
+                queryParam("from", FIRST_TRANSFER_AT.toString()).
+                queryParam("to", FIRST_TRANSFER_AT.toString()).
+        when().
+                get(URL_PATH).
+        then().
+                statusCode(HttpStatus.BAD_REQUEST.value()).
+                contentType(ContentType.JSON).
+                body("error", equalTo(InvalidPaginationException.class.getSimpleName())).
+                body("message", equalTo("From must be before to"));
+    }
+
+    @Test
+    void shouldReturn404WhenUserDoesNotExist() {
+        given().
+                pathParam("email", "invalid@testing.com").
+        when().
+                get(URL_PATH).
+        then().
+                statusCode(HttpStatus.NOT_FOUND.value()).
+                body("message", equalTo("User not found"));
+    }
+
+    @Test
+    void shouldNotLoadPayerAndPayeeWithTheTransfer() {
+        Transfer transfer = transferRepository.findAll().get(0);
+
+        assertFalse(Hibernate.isInitialized(transfer.getPayer()));
+        assertFalse(Hibernate.isInitialized(transfer.getPayee()));
+    }
+}
@@ -1,8 +1,10 @@
 package com.soaresdev.picpaytestjr.v1.services;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.soaresdev.picpaytestjr.caches.CacheGeneration;
 import com.soaresdev.picpaytestjr.entities.User;
 import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.exceptions.IdempotencyConflictException;
 import com.soaresdev.picpaytestjr.exceptions.TransferException;
 import com.soaresdev.picpaytestjr.repositories.TransferRepository;
 import com.soaresdev.picpaytestjr.repositories.UserRepository;
@@ -20,6 +22,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.client.HttpServerErrorException;
 import java.math.BigDecimal;
+import java.util.UUID;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static io.restassured.RestAssured.*;
@@ -33,6 +36,7 @@ class TransferIntegrationTest extends AbstractIntegrationTest {
     private static final String VALID_CNPJ = "79610519000141";
     private static final String VALID_COSTUMER_EMAIL = "johndoe@testing.com";
     private static final String VALID_SELLER_EMAIL = "marydoe@testing.com";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
     private final UserRequestDto userCostumerRequestDto;
     private final UserRequestDto userSellerRequestDto;
     private final TransferDto transferDto;
@@ -43,6 +47,8 @@ class TransferIntegrationTest extends AbstractIntegrationTest {
     private TransferRepository transferRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private CacheGeneration usersCacheGeneration;
 
     public TransferIntegrationTest() {
         this.userCostumerRequestDto = new UserRequestDto();
@@ -54,7 +60,9 @@ class TransferIntegrationTest extends AbstractIntegrationTest {
 
     @BeforeEach
     void setup() {
+        WIREMOCK_SERVER.resetAll();
         transferRepository.deleteAll();
+        cleanLedger();
         userRepository.deleteAll();
         setupStandardTransfer();
     }
@@ -63,7 +71,7 @@ class TransferIntegrationTest extends AbstractIntegrationTest {
     void shouldReturn204WhenTransfer() throws JsonProcessingException {
         initUserInstancesOnDatabase();
         setAuthorizationByExternalApis(validAuthorizeDto);
-        String standardFindAllRequestCacheKey = "page:0:size:10:sort:fullName: ASC,balance: ASC";
+        long usersGeneration = usersCacheGeneration.current();
 
         given().
                 contentType(ContentType.JSON).
@@ -77,9 +85,122 @@ class TransferIntegrationTest extends AbstractIntegrationTest {
         User userSeller = userRepository.findByEmail(userSellerRequestDto.getEmail()).orElseThrow(EntityNotFoundException::new);
         assertEquals(userCostumerRequestDto.getBalance().subtract(transferDto.getAmount()).stripTrailingZeros(), userCostumer.getBalance().stripTrailingZeros());
         assertEquals(userSellerRequestDto.getBalance().add(transferDto.getAmount()).stripTrailingZeros(), userSeller.getBalance().stripTrailingZeros());
-        assertNull(cacheManager.getCache("user-cache").get(userCostumer.getEmail()));
-        assertNull(cacheManager.getCache("user-cache").get(userSeller.getEmail()));
-        assertNull(cacheManager.getCache("users").get(standardFindAllRequestCacheKey));
+        assertNull(cacheManager.getCache("user-balance").get(userCostumer.getEmail()));
+        assertNull(cacheManager.getCache("user-balance").get(userSeller.getEmail()));
+        assertEquals(usersGeneration + 1, usersCacheGeneration.current());
+    }
+
+    @Test
+    void shouldTransferToARecreatedUserWhenItsIndexedIdIsStale() throws JsonProcessingException {
+        initUserInstancesOnDatabase();
+        setAuthorizationByExternalApis(validAuthorizeDto);
+        transferDto.setAmount(BigDecimal.ONE);
+        given().contentType(ContentType.JSON).body(objectMapper.writeValueAsString(transferDto)).
+                when().post(URL_PATH).then().statusCode(HttpStatus.NO_CONTENT.value());
+
+        User oldSeller = userRepository.findByEmail(VALID_SELLER_EMAIL).orElseThrow(EntityNotFoundException::new);
+        transferRepository.deleteAll();
+        cleanLedger();
+        userRepository.delete(oldSeller);
+        User newSeller = userRepository.save(new User(UserType.SELLER.getCode(), "the-strongest-password12345", "Mary Doe", VALID_SELLER_EMAIL, VALID_CNPJ, BigDecimal.ONE));
+
+        given().
+                contentType(ContentType.JSON).
+                body(objectMapper.writeValueAsString(transferDto)).
+        when().
+                post(URL_PATH).
+        then().
+                statusCode(HttpStatus.NO_CONTENT.value());
+
+        User userSeller = userRepository.findByEmail(VALID_SELLER_EMAIL).orElseThrow(EntityNotFoundException::new);
+        assertNotEquals(oldSeller.getId(), newSeller.getId());
+        assertEquals(newSeller.getId(), userSeller.getId());
+        assertEquals(0, userSeller.getBalance().compareTo(BigDecimal.valueOf(2)));
+    }
+
+    @Test
+    void shouldReplayTransferWhenIdempotencyKeyIsRepeated() throws JsonProcessingException {
+        initUserInstancesOnDatabase();
+        setAuthorizationByExternalApis(validAuthorizeDto);
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        for(int i = 0; i < 2; i++) {
+            given().
+                    contentType(ContentType.JSON).
+                    header(IDEMPOTENCY_KEY_HEADER, idempotencyKey).
+                    body(objectMapper.writeValueAsString(transferDto)).
+            when().
+                    post(URL_PATH).
+            then().
+                    statusCode(HttpStatus.NO_CONTENT.value());
+        }
+
+        User userCostumer = userRepository.findByEmail(userCostumerRequestDto.getEmail()).orElseThrow(EntityNotFoundException::new);
+        assertEquals(0, userCostumer.getBalance().compareTo(userCostumerRequestDto.getBalance().subtract(transferDto.getAmount())));
+        assertEquals(1, transferRepository.count());
+        WIREMOCK_SERVER.verify(1, getRequestedFor(urlEqualTo("/api/v2/authorize")));
+    }
+
+    @Test
+    void shouldReturn409WhenIdempotencyKeyIsReusedForAnotherTransfer() throws JsonProcessingException {
+        initUserInstancesOnDatabase();
+        setAuthorizationByExternalApis(validAuthorizeDto);
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        given().
+                contentType(ContentType.JSON).
+                header(IDEMPOTENCY_KEY_HEADER, idempotencyKey).
+                body(objectMapper.writeValueAsString(transferDto)).
+        when().
+                post(URL_PATH).
+        then().
+                statusCode(HttpStatus.NO_CONTENT.value());
+
+        transferDto.setAmount(BigDecimal.ONE);
+        given().
+                contentType(ContentType.JSON).
+                header(IDEMPOTENCY_KEY_HEADER, idempotencyKey).
+                body(objectMapper.writeValueAsString(transferDto)).
+        when().
+                post(URL_PATH).
+        then().
+                statusCode(HttpStatus.CONFLICT.value()).
+                contentType(ContentType.JSON).
+                body("status", equalTo(HttpStatus.CONFLICT.value())).
+                body("error", equalTo(IdempotencyConflictException.class.getSimpleName())).
+                body("message", equalTo("Idempotency key already used for a different request")).
+                body("path",equalTo(URL_PATH));
+
+        assertEquals(1, transferRepository.count());
+    }
+
+    @Test
+    void shouldReleaseIdempotencyKeyWhenTransferIsRejectedBeforeCommit() throws JsonProcessingException {
+        initUserInstancesOnDatabase();
+        setAuthorizationByExternalApis(invalidAuthorizeDto);
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        given().
+                contentType(ContentType.JSON).
+                header(IDEMPOTENCY_KEY_HEADER, idempotencyKey).
+                body(objectMapper.writeValueAsString(transferDto)).
+        when().
+                post(URL_PATH).
+        then().
+                statusCode(HttpStatus.UNPROCESSABLE_ENTITY.value());
+
+        WIREMOCK_SERVER.resetAll();
+        setAuthorizationByExternalApis(validAuthorizeDto);
+        given().
+                contentType(ContentType.JSON).
+                header(IDEMPOTENCY_KEY_HEADER, idempotencyKey).
+                body(objectMapper.writeValueAsString(transferDto)).
+        when().
+                post(URL_PATH).
+        then().
+                statusCode(HttpStatus.NO_CONTENT.value());
+
+        assertEquals(1, transferRepository.count());
     }
 
     @Test
@@ -166,6 +287,7 @@ class TransferIntegrationTest extends AbstractIntegrationTest {
         initUserInstancesOnDatabase();
         setAuthorizationByExternalApis(validAuthorizeDto);
         transferDto.setAmount(userCostumerRequestDto.getBalance().add(BigDecimal.ONE));
+        long usersGeneration = usersCacheGeneration.current();
 
         given().
                 contentType(ContentType.JSON).
@@ -185,6 +307,7 @@ class TransferIntegrationTest extends AbstractIntegrationTest {
         User userSeller = userRepository.findByEmail(userSellerRequestDto.getEmail()).orElseThrow(EntityNotFoundException::new);
         assertEquals(0, userCostumer.getBalance().compareTo(userCostumerRequestDto.getBalance()));
         assertEquals(0, userSeller.getBalance().compareTo(userSellerRequestDto.getBalance()));
+        assertEquals(usersGeneration, usersCacheGeneration.current());
     }
 
     @Test
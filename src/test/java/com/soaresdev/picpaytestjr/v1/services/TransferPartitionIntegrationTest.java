@@ -0,0 +1,105 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.entities.Transfer;
+import com.soaresdev.picpaytestjr.entities.User;
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.repositories.TransferRepository;
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = {"transfer.partition.retention-months=12", "transfer.partition.retention-action=DETACH"})
+class TransferPartitionIntegrationTest extends AbstractIntegrationTest {
+    private static final String EXPIRED_PARTITION = "tb_transfer_p202001";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Autowired
+    private TransferPartitionManager transferPartitionManager;
+    @Autowired
+    private TransferRepository transferRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User payer;
+    private User payee;
+
+    @BeforeEach
+    void setup() {
+        cleanTables();
+        payer = userRepository.save(new User(UserType.CUSTOMER.getCode(), "the-strongest-password123", "John Doe", "johndoe@testing.com", "47776629911", BigDecimal.TEN));
+        payee = userRepository.save(new User(UserType.SELLER.getCode(), "the-strongest-password12345", "Mary Doe", "marydoe@testing.com", "79610519000141", BigDecimal.ONE));
+    }
+
+    @AfterEach
+    void cleanTables() {
+        cleanLedger();
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + EXPIRED_PARTITION);
+        jdbcTemplate.execute("TRUNCATE tb_transfer");
+        jdbcTemplate.update("DELETE FROM tb_user");
+    }
+
+    @Test
+    void shouldCreatePartitionsAheadAndRouteTransfersToTheirMonth() {
+        transferPartitionManager.managePartitions();
+        YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
+        List<String> partitions = findPartitions();
+        for(int i = 0; i <= 3; i++)
+            assertTrue(partitions.contains(partitionOf(currentMonth.plusMonths(i))));
+
+        transferRepository.save(new Transfer(payee, payer, Instant.now(), BigDecimal.ONE));
+
+        assertEquals(List.of(partitionOf(currentMonth)),
+                jdbcTemplate.queryForList("SELECT tableoid::regclass::text FROM tb_transfer", String.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM tb_transfer_default", Integer.class));
+    }
+
+    @Test
+    void shouldDetachPartitionsOlderThanTheRetention() {
+        jdbcTemplate.queryForObject("SELECT fn_create_transfer_partition(?)", Boolean.class, LocalDate.of(2020, 1, 1));
+        jdbcTemplate.update("INSERT INTO tb_transfer (payer_id, payee_id, value, created_at) VALUES (?, ?, 1, TIMESTAMP '2020-01-15 10:00:00')",
+                payer.getId(), payee.getId());
+        assertTrue(findPartitions().contains(EXPIRED_PARTITION));
+
+        transferPartitionManager.managePartitions();
+
+        assertFalse(findPartitions().contains(EXPIRED_PARTITION));
+        assertEquals(0, transferRepository.count());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM " + EXPIRED_PARTITION, Integer.class));
+    }
+
+    @Test
+    void shouldOnlyScanThePartitionsOfTheRequestedRange() {
+        YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN SELECT * FROM tb_transfer WHERE payer_id = ? " +
+                        "AND created_at >= ? AND created_at <= ? ORDER BY created_at DESC, id DESC LIMIT 10", String.class,
+                payer.getId(), currentMonth.atDay(1).atStartOfDay(), currentMonth.atDay(1).atStartOfDay().plusDays(7)));
+
+        assertTrue(plan.contains(partitionOf(currentMonth)), plan);
+        assertFalse(plan.contains(partitionOf(currentMonth.plusMonths(1))), plan);
+        assertFalse(plan.contains("tb_transfer_default"), plan);
+    }
+
+    private List<String> findPartitions() {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'tb_transfer'::regclass", String.class);
+    }
+
+    private String partitionOf(YearMonth month) {
+        return "tb_transfer_p" + month.format(PARTITION_SUFFIX);
+    }
+}
@@ -0,0 +1,147 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.entities.User;
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.TransferHistoryDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferStatementExportIntegrationTest extends AbstractIntegrationTest {
+    private static final Logger logger = LoggerFactory.getLogger(TransferStatementExportIntegrationTest.class.getName());
+    private static final String URL_PATH = "/v1/user/{email}/transfers/export";
+    private static final String JOHN_EMAIL = "johndoe@testing.com";
+    private static final String ANN_EMAIL = "anndoe@testing.com";
+    // Well above what the test heap (-Xmx256m) could hold if the statement were loaded or buffered at once
+    private static final int TRANSFERS = 2_000_000;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserIdResolver userIdResolver;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User john;
+    private User ann;
+
+    @BeforeEach
+    void setup() {
+        cleanTables();
+        List.of(JOHN_EMAIL, ANN_EMAIL).forEach(userIdResolver::evict);
+        john = userRepository.save(new User(UserType.CUSTOMER.getCode(), "the-strongest-password123", "John Doe", JOHN_EMAIL, "47776629911", BigDecimal.TEN));
+        ann = userRepository.save(new User(UserType.CUSTOMER.getCode(), "the-strongest-password1234", "Ann Doe", ANN_EMAIL, "52998224725", BigDecimal.TEN));
+    }
+
+    @AfterEach
+    void cleanTables() {
+        cleanLedger();
+        jdbcTemplate.execute("TRUNCATE tb_transfer");
+        jdbcTemplate.update("DELETE FROM tb_user");
+    }
+
+    @Test
+    void shouldExportStatementOldestFirstInBothFormats() throws Exception {
+        seedTransfers(4);
+
+        String csv = given().
+                pathParam("email", JOHN_EMAIL).
+        when().
+                get(URL_PATH).
+        then().
+                statusCode(HttpStatus.OK.value()).
+                contentType("text/csv").
+                header(HttpHeaders.CONTENT_DISPOSITION, equalTo("attachment; filename=\"statement.csv\"")).
+                extract().asString();
+        List<String> lines = csv.lines().toList();
+        assertEquals(5, lines.size());
+        assertEquals("uuid,payer_email,payee_email,value,created_at", lines.get(0));
+        assertTrue(lines.get(1).contains(JOHN_EMAIL + "," + ANN_EMAIL + ",1.00,"));
+        assertTrue(lines.get(2).contains(ANN_EMAIL + "," + JOHN_EMAIL + ",2.00,"));
+
+        String ndjson = given().
+                pathParam("email", JOHN_EMAIL).
+                queryParam("format", "NDJSON").
+        when().
+                get(URL_PATH).
+        then().
+                statusCode(HttpStatus.OK.value()).
+                contentType("application/x-ndjson").
+                extract().asString();
+        List<String> rows = ndjson.lines().toList();
+        assertEquals(4, rows.size());
+        TransferHistoryDto last = objectMapper.readValue(rows.get(3), TransferHistoryDto.class);
+        assertEquals(ANN_EMAIL, last.getPayerEmail());
+        assertEquals(0, last.getValue().compareTo(BigDecimal.valueOf(4)));
+    }
+
+    @Test
+    void shouldReturn404WhenUserDoesNotExist() {
+        given().
+                pathParam("email", "invalid@testing.com").
+        when().
+                get(URL_PATH).
+        then().
+                statusCode(HttpStatus.NOT_FOUND.value()).
+                body("message", equalTo("User not found"));
+    }
+
+    @Test
+    void shouldStreamAVeryLargeStatementWithinASmallHeap() throws Exception {
+        seedTransfers(TRANSFERS);
+        Runtime runtime = Runtime.getRuntime();
+
+        long startedAt = System.nanoTime();
+        HttpResponse<InputStream> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/v1/user/" + JOHN_EMAIL + "/transfers/export")).build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        long lines = 0;
+        long bytes = 0;
+        try(BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            String line;
+            while((line = reader.readLine()) != null) {
+                lines++;
+                bytes += line.length() + 1;
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+
+        logger.info("Statement export benchmark: {} transfers, {} MiB streamed in {} ms, max heap {} MiB",
+                TRANSFERS, bytes / (1024 * 1024), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), runtime.maxMemory() / (1024 * 1024));
+        assertEquals(HttpStatus.OK.value(), response.statusCode());
+        assertEquals(TRANSFERS + 1L, lines);
+        assertTrue(bytes > runtime.maxMemory(), "The statement must not fit in the test heap");
+    }
+
+    // Odd transfers are sent by John to Ann and even ones received from Ann, one per second
+    private void seedTransfers(int transfers) {
+        jdbcTemplate.update("INSERT INTO tb_transfer (uuid, payer_id, payee_id, value, created_at) " +
+                "SELECT gen_random_uuid(), CASE WHEN g % 2 = 1 THEN ?::uuid ELSE ?::uuid END, " +
+                "CASE WHEN g % 2 = 1 THEN ?::uuid ELSE ?::uuid END, g % 1000, " +
+                "TIMESTAMP '2025-01-01 00:00:00' + g * INTERVAL '1 second' FROM generate_series(1, ?) g",
+                john.getId(), ann.getId(), ann.getId(), john.getId(), transfers);
+        jdbcTemplate.execute("ANALYZE tb_transfer");
+    }
+}
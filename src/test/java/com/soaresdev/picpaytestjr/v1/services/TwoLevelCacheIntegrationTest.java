@@ -0,0 +1,133 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.caches.CompactValueSerializer;
+import com.soaresdev.picpaytestjr.caches.TwoLevelCache;
+import com.soaresdev.picpaytestjr.caches.TwoLevelCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TwoLevelCacheIntegrationTest extends AbstractIntegrationTest {
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCacheIntegrationTest.class.getName());
+    private static final String CACHE_NAME = "user-profile";
+    private static final int KEYS = 1_000;
+
+    @Autowired
+    private RedisConnectionFactory redisConnectionFactory;
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CompactValueSerializer cacheValueSerializer;
+
+    private RedisMessageListenerContainer otherNodeListenerContainer;
+    private TwoLevelCacheManager otherNodeCacheManager;
+
+    @BeforeEach
+    void setupOtherNode() {
+        otherNodeListenerContainer = new RedisMessageListenerContainer();
+        otherNodeListenerContainer.setConnectionFactory(redisConnectionFactory);
+        otherNodeListenerContainer.afterPropertiesSet();
+        otherNodeListenerContainer.start();
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory).
+                cacheDefaults(RedisCacheConfiguration.defaultCacheConfig().
+                        serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(cacheValueSerializer))).
+                initialCacheNames(Set.of(CACHE_NAME)).
+                build();
+        redisCacheManager.afterPropertiesSet();
+        otherNodeCacheManager = new TwoLevelCacheManager(redisCacheManager, redisTemplate, otherNodeListenerContainer,
+                1_000, Duration.ofMinutes(1), 1.0);
+    }
+
+    @AfterEach
+    void stopOtherNode() throws Exception {
+        otherNodeCacheManager.shutdown();
+        otherNodeListenerContainer.stop();
+        otherNodeListenerContainer.destroy();
+    }
+
+    @Test
+    void shouldEvictLocalEntriesOnOtherNodes() throws InterruptedException {
+        TwoLevelCache cache = getCache(cacheManager);
+        TwoLevelCache otherNodeCache = getCache(otherNodeCacheManager);
+        cache.getRedisCache().put("john@testing.com", "John");
+        assertEquals("John", otherNodeCache.get("john@testing.com", String.class));
+        assertNotNull(otherNodeCache.getLocalCache().getIfPresent("john@testing.com"));
+
+        cache.evict("john@testing.com");
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while(Objects.nonNull(otherNodeCache.getLocalCache().getIfPresent("john@testing.com"))) {
+            if(System.currentTimeMillis() > deadline)
+                fail("Local entry was not invalidated on the other node");
+            Thread.sleep(20);
+        }
+        assertNull(otherNodeCache.get("john@testing.com"));
+    }
+
+    @Test
+    void shouldEvictLocalEntriesOnOtherNodesWhenAValueIsReloaded() throws InterruptedException {
+        TwoLevelCache cache = getCache(cacheManager);
+        TwoLevelCache otherNodeCache = getCache(otherNodeCacheManager);
+        cache.getRedisCache().put("john@testing.com", "John");
+        assertEquals("John", otherNodeCache.get("john@testing.com", String.class));
+
+        cache.getRedisCache().evict("john@testing.com");
+        assertEquals("Johnny", cache.get("john@testing.com", () -> "Johnny"));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while(Objects.nonNull(otherNodeCache.getLocalCache().getIfPresent("john@testing.com"))) {
+            if(System.currentTimeMillis() > deadline)
+                fail("Local entry was not invalidated on the other node");
+            Thread.sleep(20);
+        }
+        assertEquals("Johnny", otherNodeCache.get("john@testing.com", String.class));
+    }
+
+    @Test
+    void shouldServeLocalHitsFasterThanRedisHits() {
+        TwoLevelCache cache = getCache(cacheManager);
+        for(int i = 0; i < KEYS; i++)
+            cache.put("key-" + i, "value-" + i);
+
+        readAll(cache);
+        long localNanos = readAll(cache);
+        cache.clearLocal();
+        long redisNanos = readAll(cache);
+
+        logger.info("Two-level cache benchmark: local hit {} ns, Redis hit {} ns on average",
+                localNanos / KEYS, redisNanos / KEYS);
+        assertTrue(localNanos < redisNanos);
+        assertTrue(meterRegistry.get("cache.gets").tags("cache", CACHE_NAME, "level", "l1", "result", "hit").
+                functionCounter().count() >= KEYS);
+    }
+
+    private long readAll(TwoLevelCache cache) {
+        long startedAt = System.nanoTime();
+        for(int i = 0; i < KEYS; i++)
+            assertEquals("value-" + i, cache.get("key-" + i, String.class));
+        return System.nanoTime() - startedAt;
+    }
+
+    private TwoLevelCache getCache(CacheManager cacheManager) {
+        return (TwoLevelCache) Objects.requireNonNull(cacheManager.getCache(CACHE_NAME));
+    }
+}
@@ -0,0 +1,128 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.caches.CompactValueSerializer;
+import com.soaresdev.picpaytestjr.caches.TwoLevelCache;
+import com.soaresdev.picpaytestjr.caches.TwoLevelCacheManager;
+import com.soaresdev.picpaytestjr.entities.User;
+import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.UserResponseDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserCacheStampedeIntegrationTest extends AbstractIntegrationTest {
+    private static final String USER_EMAIL = "johndoe@testing.com";
+    private static final int CONCURRENT_MISSES = 32;
+    private static final long LOAD_DELAY_MILLIS = 300;
+
+    @Autowired
+    private UserService userService;
+    @MockitoSpyBean
+    private UserRepository userRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private RedisConnectionFactory redisConnectionFactory;
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    @Autowired
+    private CompactValueSerializer cacheValueSerializer;
+
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        cleanLedger();
+        userRepository.deleteAll();
+        user = userRepository.save(new User(UserType.SELLER.getCode(), "the-strongest-password12345", "Mary Doe", USER_EMAIL, "79610519000141", BigDecimal.TEN));
+    }
+
+    @Test
+    void shouldRunOneQueryForABurstOfMissesOnTheSameKey() throws Exception {
+        doAnswer(invocation -> {
+            Thread.sleep(LOAD_DELAY_MILLIS);
+            return Optional.of(user);
+        }).when(userRepository).findByEmail(USER_EMAIL);
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_MISSES);
+        CountDownLatch ready = new CountDownLatch(CONCURRENT_MISSES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<UserResponseDto>> results = new ArrayList<>();
+
+        for(int i = 0; i < CONCURRENT_MISSES; i++) {
+            results.add(executor.submit(() -> {
+                ready.countDown();
+                start.await();
+                return userService.findUserByEmail(USER_EMAIL);
+            }));
+        }
+        ready.await();
+        start.countDown();
+        for(Future<UserResponseDto> result : results)
+            assertEquals(USER_EMAIL, result.get(10, TimeUnit.SECONDS).getEmail());
+        executor.shutdown();
+
+        verify(userRepository, times(1)).findByEmail(USER_EMAIL);
+        assertEquals(CONCURRENT_MISSES - 1, meterRegistry.get("cache.loads.coalesced").tags("cache", "user-profile").
+                functionCounter().count());
+    }
+
+    @Test
+    void shouldRefreshEntriesInTheBackgroundBeforeTheyExpire() throws Exception {
+        RedisMessageListenerContainer listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisConnectionFactory);
+        listenerContainer.afterPropertiesSet();
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory).
+                cacheDefaults(RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(10)).
+                        serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(cacheValueSerializer))).
+                initialCacheNames(Set.of("early-refresh-cache")).
+                build();
+        redisCacheManager.afterPropertiesSet();
+        TwoLevelCacheManager eagerCacheManager = new TwoLevelCacheManager(redisCacheManager, redisTemplate, listenerContainer,
+                1_000, Duration.ofMinutes(1), 1e12);
+        TwoLevelCache cache = (TwoLevelCache) Objects.requireNonNull(eagerCacheManager.getCache("early-refresh-cache"));
+        AtomicInteger loads = new AtomicInteger();
+
+        try {
+            cache.clear();
+            assertEquals("value-1", cache.get("key", () -> "value-" + loads.incrementAndGet()));
+            assertEquals("value-1", cache.get("key", () -> "value-" + loads.incrementAndGet()));
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while(!"value-2".equals(cache.getLocalCache().getIfPresent("key"))) {
+                if(System.currentTimeMillis() > deadline)
+                    fail("Entry was not refreshed in the background");
+                Thread.sleep(20);
+            }
+            assertEquals(1, cache.getEarlyRefreshes());
+            assertEquals("value-2", cache.getRedisCache().get("key", String.class));
+        } finally {
+            cache.clear();
+            eagerCacheManager.shutdown();
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.soaresdev.picpaytestjr.v1.services;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.soaresdev.picpaytestjr.caches.CacheGeneration;
 import com.soaresdev.picpaytestjr.entities.User;
 import com.soaresdev.picpaytestjr.entities.enums.UserType;
+import com.soaresdev.picpaytestjr.exceptions.InvalidPaginationException;
 import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.UserBalanceDto;
 import com.soaresdev.picpaytestjr.v1.dtos.UserRequestDto;
 import io.restassured.http.ContentType;
 import jakarta.persistence.EntityExistsException;
@@ -32,9 +35,12 @@ class UserIntegrationTest extends AbstractIntegrationTest {
 
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private CacheGeneration usersCacheGeneration;
 
     @BeforeEach
     void setup() {
+        cleanLedger();
         userRepository.deleteAll();
         setupStandardUser();
     }
@@ -58,8 +64,8 @@ class UserIntegrationTest extends AbstractIntegrationTest {
                 body("balance.toString()",equalTo(userRequestDto.getBalance().stripTrailingZeros().toPlainString())).
                 header("Location", containsString(URL_PATH + "/" + userRequestDto.getEmail()));
 
-        assertThat(cacheManager.getCache("user-cache").get(userRequestDto.getEmail()).get()).
-                usingRecursiveComparison().ignoringFields("id", "userType", "password").
+        assertThat(cacheManager.getCache("user-profile").get(userRequestDto.getEmail()).get()).
+                usingRecursiveComparison().ignoringFields("id", "userType", "password", "balance").
                 withComparatorForType(BigDecimal::compareTo, BigDecimal.class).
                 isEqualTo(userRequestDto);
     }
@@ -85,8 +91,8 @@ class UserIntegrationTest extends AbstractIntegrationTest {
                 body("balance.toString()",equalTo(userRequestDto.getBalance().stripTrailingZeros().toPlainString())).
                 header("Location", containsString(URL_PATH + "/" + userRequestDto.getEmail()));
 
-        assertThat(cacheManager.getCache("user-cache").get(userRequestDto.getEmail()).get()).
-                usingRecursiveComparison().ignoringFields("id", "userType", "password").
+        assertThat(cacheManager.getCache("user-profile").get(userRequestDto.getEmail()).get()).
+                usingRecursiveComparison().ignoringFields("id", "userType", "password", "balance").
                 withComparatorForType(BigDecimal::compareTo, BigDecimal.class).
                 isEqualTo(userRequestDto);
     }
@@ -161,7 +167,6 @@ class UserIntegrationTest extends AbstractIntegrationTest {
         UserRequestDto userRequestDtoTwo = new UserRequestDto(BigDecimal.TEN, VALID_CNPJ, "seller@testing.com", "The Test", "testing123");
         saveUserOnDatabase(userRequestDto);
         saveUserOnDatabase(userRequestDtoTwo);
-        String standardRequestCacheKey = "page:0:size:10:sort:fullName: ASC,balance: ASC";
 
         given().
                 get(URL_PATH).
@@ -182,9 +187,57 @@ class UserIntegrationTest extends AbstractIntegrationTest {
                 body("content[1].email",equalTo(userRequestDtoTwo.getEmail())).
                 body("content[1].balance",equalTo(userRequestDtoTwo.getBalance().floatValue()));
 
+        String standardRequestCacheKey = "generation:" + usersCacheGeneration.current() + ":page:0:size:10:sort:fullName: ASC,balance: ASC";
         assertThat(cacheManager.getCache("users").get(standardRequestCacheKey)).isNotNull();
     }
 
+    @Test
+    void shouldReturn200WhenFindAllUsersByCursor() {
+        UserRequestDto userRequestDtoTwo = new UserRequestDto(BigDecimal.TEN, VALID_CNPJ, "seller@testing.com", "The Test", "testing123");
+        saveUserOnDatabase(userRequestDto);
+        saveUserOnDatabase(userRequestDtoTwo);
+
+        String nextCursor = given().
+                queryParam("size", 1).
+        when().
+                get(URL_PATH + "/cursor").
+        then().
+                statusCode(HttpStatus.OK.value()).
+                contentType(ContentType.JSON).
+                body("content.size()", equalTo(1)).
+                body("content[0].email", equalTo(userRequestDto.getEmail())).
+                body("size", equalTo(1)).
+                body("hasNext", equalTo(true)).
+                body("nextCursor", notNullValue()).
+                extract().path("nextCursor");
+
+        given().
+                queryParam("size", 1).
+                queryParam("after", nextCursor).
+        when().
+                get(URL_PATH + "/cursor").
+        then().
+                statusCode(HttpStatus.OK.value()).
+                body("content.size()", equalTo(1)).
+                body("content[0].email", equalTo(userRequestDtoTwo.getEmail())).
+                body("hasNext", equalTo(false)).
+                body("nextCursor", nullValue());
+    }
+
+    @Test
+    void shouldReturn400WhenCursorIsInvalid() {
+        given().
+                queryParam("after", "not-a-cursor").
+        when().
+                get(URL_PATH + "/cursor").
+        then().
+                statusCode(HttpStatus.BAD_REQUEST.value()).
+                contentType(ContentType.JSON).
+                body("error", equalTo(InvalidPaginationException.class.getSimpleName())).
+                body("message", equalTo("Invalid cursor")).
+                body("path", equalTo(URL_PATH + "/cursor"));
+    }
+
     @Test
     void shouldReturn200WhenFindUserByEmail() {
         saveUserOnDatabase(userRequestDto);
@@ -203,12 +256,33 @@ class UserIntegrationTest extends AbstractIntegrationTest {
                 body("email",equalTo(userRequestDto.getEmail())).
                 body("balance",equalTo(userRequestDto.getBalance().floatValue()));
 
-        assertThat(cacheManager.getCache("user-cache").get(userRequestDto.getEmail()).get()).
-                usingRecursiveComparison().ignoringFields("id", "userType", "password").
+        assertThat(cacheManager.getCache("user-profile").get(userRequestDto.getEmail()).get()).
+                usingRecursiveComparison().ignoringFields("id", "userType", "password", "balance").
                 withComparatorForType(BigDecimal::compareTo, BigDecimal.class).
                 isEqualTo(userRequestDto);
     }
 
+    @Test
+    void shouldReturn200WhenFindBalanceByEmail() {
+        saveUserOnDatabase(userRequestDto);
+
+        given().
+                pathParam("email", userRequestDto.getEmail()).
+        when().
+                get(URL_PATH + "/{email}/balance").
+        then().
+                statusCode(HttpStatus.OK.value()).
+                contentType(ContentType.JSON).
+                body("email", equalTo(userRequestDto.getEmail())).
+                body("balance", equalTo(userRequestDto.getBalance().floatValue()));
+
+        assertThat(cacheManager.getCache("user-balance").get(userRequestDto.getEmail()).get()).
+                usingRecursiveComparison().
+                withComparatorForType(BigDecimal::compareTo, BigDecimal.class).
+                isEqualTo(new UserBalanceDto(userRequestDto.getEmail(), userRequestDto.getBalance()));
+        assertThat(cacheManager.getCache("user-profile").get(userRequestDto.getEmail())).isNull();
+    }
+
     @Test
     void shouldReturn404WhenEmailDoesNotExist() {
         String encodedUserRequestEmail = URLEncoder.encode(userRequestDto.getEmail(), StandardCharsets.UTF_8);
@@ -0,0 +1,77 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.entities.User;
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.UserResponseDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserKeysetPaginationIntegrationTest extends AbstractIntegrationTest {
+    private static final Logger logger = LoggerFactory.getLogger(UserKeysetPaginationIntegrationTest.class.getName());
+    private static final int USERS = 200_000;
+    private static final int PAGE_SIZE = 10;
+    private static final int DEEP_PAGE = 10_000;
+    private static final int RUNS = 5;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        cleanTables();
+        jdbcTemplate.update("INSERT INTO tb_user (id, full_name, user_type_code, cpf_cnpj, email, password, balance) " +
+                "SELECT gen_random_uuid(), 'User ' || lpad((g % 20000)::text, 5, '0'), 1, lpad(g::text, 11, '0'), " +
+                "'user' || g || '@testing.com', 'the-strongest-password123', g % 1000 FROM generate_series(1, ?) g", USERS);
+        jdbcTemplate.execute("ANALYZE tb_user");
+    }
+
+    @AfterEach
+    void cleanTables() {
+        cleanLedger();
+        jdbcTemplate.update("DELETE FROM tb_transfer");
+        jdbcTemplate.update("DELETE FROM tb_user");
+    }
+
+    @Test
+    void shouldReadADeepPageByKeysetFasterThanByOffset() {
+        PageRequest deepPage = PageRequest.of(DEEP_PAGE, PAGE_SIZE, Sort.by("fullName", "id"));
+        User lastOfPreviousPage = userRepository.findAll(PageRequest.of(DEEP_PAGE * PAGE_SIZE - 1, 1,
+                Sort.by("fullName", "id"))).getContent().get(0);
+
+        List<User> offsetUsers = userRepository.findAll(deepPage).getContent();
+        List<UserResponseDto> keysetUsers = userRepository.findAfterInListingOrder(lastOfPreviousPage.getFullName(),
+                lastOfPreviousPage.getId(), PAGE_SIZE);
+        long offsetNanos = bestOf(() -> userRepository.findAll(deepPage));
+        long keysetNanos = bestOf(() -> userRepository.findAfterInListingOrder(lastOfPreviousPage.getFullName(),
+                lastOfPreviousPage.getId(), PAGE_SIZE));
+
+        logger.info("Keyset pagination benchmark: page {} of {} users, offset + count {} us, keyset {} us",
+                DEEP_PAGE, USERS, TimeUnit.NANOSECONDS.toMicros(offsetNanos), TimeUnit.NANOSECONDS.toMicros(keysetNanos));
+        assertEquals(offsetUsers.stream().map(User::getId).toList(), keysetUsers.stream().map(UserResponseDto::getId).toList());
+        assertTrue(keysetNanos < offsetNanos);
+    }
+
+    private long bestOf(Supplier<?> query) {
+        long best = Long.MAX_VALUE;
+        for(int i = 0; i < RUNS; i++) {
+            long startedAt = System.nanoTime();
+            query.get();
+            best = Math.min(best, System.nanoTime() - startedAt);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,73 @@
+package com.soaresdev.picpaytestjr.v1.services;
+
+import com.soaresdev.picpaytestjr.repositories.UserRepository;
+import com.soaresdev.picpaytestjr.v1.dtos.UserResponseDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserProjectionAllocationIntegrationTest extends AbstractIntegrationTest {
+    private static final Logger logger = LoggerFactory.getLogger(UserProjectionAllocationIntegrationTest.class.getName());
+    private static final int USERS = 1_000;
+    private static final int WARMUP_RUNS = 20;
+    private static final int RUNS = 50;
+    private static final PageRequest PAGE = PageRequest.of(0, USERS, Sort.by("fullName", "balance", "id"));
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        cleanTables();
+        jdbcTemplate.update("INSERT INTO tb_user (id, full_name, user_type_code, cpf_cnpj, email, password, balance) " +
+                "SELECT gen_random_uuid(), 'User ' || lpad(g::text, 5, '0'), 1, lpad(g::text, 11, '0'), " +
+                "'user' || g || '@testing.com', '$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z4JtUsmBf3e.5wj4q1U4Kf3u', g % 1000 " +
+                "FROM generate_series(1, ?) g", USERS);
+    }
+
+    @AfterEach
+    void cleanTables() {
+        cleanLedger();
+        jdbcTemplate.update("DELETE FROM tb_transfer");
+        jdbcTemplate.update("DELETE FROM tb_user");
+    }
+
+    @Test
+    void shouldAllocateLessReadingTheListingThroughProjections() {
+        Supplier<Page<UserResponseDto>> entityListing = () -> userRepository.findAll(PAGE).map(UserResponseDto::new);
+        Supplier<Page<UserResponseDto>> projectionListing = () -> userRepository.findAllListing(PAGE);
+        assertEquals(entityListing.get().getContent().stream().map(UserResponseDto::getId).toList(),
+                projectionListing.get().getContent().stream().map(UserResponseDto::getId).toList());
+
+        allocatedBytesPerRun(entityListing, WARMUP_RUNS);
+        allocatedBytesPerRun(projectionListing, WARMUP_RUNS);
+        long entityBytes = allocatedBytesPerRun(entityListing, RUNS);
+        long projectionBytes = allocatedBytesPerRun(projectionListing, RUNS);
+
+        logger.info("Projection allocation benchmark: listing {} users, entities {} KiB, projections {} KiB per read",
+                USERS, entityBytes / 1024, projectionBytes / 1024);
+        assertTrue(projectionBytes < entityBytes);
+    }
+
+    private long allocatedBytesPerRun(Supplier<?> listing, int runs) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        for(int i = 0; i < runs; i++)
+            listing.get();
+        return (threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / runs;
+    }
+}